@@ -0,0 +1,58 @@
+package sggc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sggc.infrastructure.SteamAppDetailsParser;
+import sggc.models.steam.GameData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming Get App Details parser against the previous tree-based parsing. Both start from the raw
+ * response bytes, as they would when reading a response. Run with '-prof gc' to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppDetailsParseBenchmark {
+
+    @Param({"appdetails-multiplayer.json", "appdetails-single-player.json", "appdetails-unsuccessful.json"})
+    private String fixture;
+
+    private byte[] response;
+    private SteamAppDetailsParser streamingParser;
+    private LegacyAppDetailsParser legacyParser;
+
+    @Setup
+    public void setUp() {
+        response = Fixtures.load(fixture);
+        streamingParser = new SteamAppDetailsParser();
+        legacyParser = new LegacyAppDetailsParser();
+    }
+
+    @Benchmark
+    public GameData legacyTreeParse() {
+        return legacyParser.parse(new String(response, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public GameData streamingParse() throws IOException {
+        return streamingParser.parse(new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package sggc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sggc.exceptions.ApiException;
+import sggc.infrastructure.SteamRequestSender;
+import sggc.models.AppIdSet;
+import sggc.models.Game;
+import sggc.models.steam.Applist;
+import sggc.models.steam.GetAppListResponse;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a full-size GetAppList response into the columnar app list through {@link SteamRequestSender}, with
+ * the network replaced by a canned response, alone and followed by diffing it against the appids of persisted games
+ * to find the few new ones. Run with '-prof gc' to compare allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppListParseBenchmark {
+
+    @Param({"150000", "300000"})
+    private int apps;
+
+    private SteamRequestSender steamRequestSender;
+    // Every app but one in fifty, as if most of Steam were already persisted.
+    private AppIdSet persistedAppIds;
+
+    @Setup
+    public void setUp() throws IOException, ApiException {
+        steamRequestSender = new SteamRequestSender(secretKey -> "benchmark-key",
+                new StubHttpClient(Fixtures.appList(apps)));
+        Applist applist = steamRequestSender.getListOfAllSteamGames().getApplist();
+        persistedAppIds = new AppIdSet();
+        for (int i = 0; i < applist.size(); i++) {
+            if (i % 50 != 0) {
+                persistedAppIds.add(String.valueOf(applist.getAppid(i)));
+            }
+        }
+    }
+
+    @Benchmark
+    public GetAppListResponse parse() throws IOException, ApiException {
+        return steamRequestSender.getListOfAllSteamGames();
+    }
+
+    @Benchmark
+    public Set<Game> parseAndDiff() throws IOException, ApiException {
+        return steamRequestSender.getListOfAllSteamGames().getApplist().getGamesNotIn(persistedAppIds);
+    }
+}
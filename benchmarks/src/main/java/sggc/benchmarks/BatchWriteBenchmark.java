@@ -0,0 +1,68 @@
+package sggc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sggc.infrastructure.DynamoDbBatchWriter;
+import sggc.models.Game;
+import sggc.models.dynamodb.BatchWriteSummary;
+import sggc.utils.CollectionUtils;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DynamoDbBatchWriter} splitting games into batches and preparing each batch write, against a
+ * DynamoDB stand-in which accepts every write, so only the client side cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchWriteBenchmark {
+
+    @Param({"1000", "10000"})
+    private int items;
+
+    @Param({"1", "4"})
+    private int maxInFlight;
+
+    private List<Game> games;
+    private DynamoDbBatchWriter batchWriter;
+    private DynamoDbTable<Game> gameTable;
+
+    @Setup
+    public void setUp() {
+        games = Fixtures.games(items);
+        games.forEach(game -> game.setId(UUID.randomUUID().toString()));
+        DynamoDbEnhancedClient client = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(new StubDynamoDbClient())
+                .build();
+        gameTable = client.table("Game", Game.TABLE_SCHEMA);
+        batchWriter = new DynamoDbBatchWriter(client, maxInFlight, DynamoDbBatchWriter.DEFAULT_MAX_ATTEMPTS,
+                DynamoDbBatchWriter.DEFAULT_BASE_BACKOFF, DynamoDbBatchWriter.DEFAULT_MAX_BACKOFF);
+    }
+
+    @Benchmark
+    public List<List<Game>> partition() {
+        return CollectionUtils.partition(games, DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE);
+    }
+
+    @Benchmark
+    public BatchWriteSummary batchWrite() {
+        return batchWriter.batchWrite(Game.class, games, gameTable);
+    }
+}
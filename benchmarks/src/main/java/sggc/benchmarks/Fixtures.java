@@ -0,0 +1,88 @@
+package sggc.benchmarks;
+
+import sggc.models.Game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Represents a collection of helper methods for loading the benchmark fixtures bundled in the benchmarks jar.
+ */
+public final class Fixtures {
+
+    // Real appids start at 10 and are spaced out as apps are removed, so generated appids are spread in the same way.
+    private static final int FIRST_APP_ID = 10;
+    private static final int MAX_APP_ID_GAP = 20;
+    private static final String[] NAME_WORDS = {"Dark", "Legends", "Simulator", "Tactics", "Online", "Quest",
+            "Dungeon", "Space", "Racing", "Soundtrack", "Deluxe", "Edition", "Chronicles", "Survival", "Arena"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Loads a fixture from the classpath.
+     *
+     * @param name the file name of the fixture within the fixtures directory.
+     * @return the raw bytes of the fixture.
+     */
+    public static byte[] load(String name) {
+        try (InputStream fixture = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (fixture == null) {
+                throw new IllegalArgumentException(String.format("No fixture named [%s].", name));
+            }
+            return fixture.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generates the specified number of games, with realistically spread appids and names. The same count always
+     * generates the same games.
+     *
+     * @param count the number of games to generate.
+     * @return the generated games, in ascending appid order.
+     */
+    public static List<Game> games(int count) {
+        Random random = new Random(count);
+        List<Game> games = new ArrayList<>(count);
+        int appId = FIRST_APP_ID;
+        for (int i = 0; i < count; i++) {
+            Game game = new Game();
+            game.setAppid(String.valueOf(appId));
+            StringBuilder name = new StringBuilder();
+            for (int words = 1 + random.nextInt(4); words > 0; words--) {
+                name.append(NAME_WORDS[random.nextInt(NAME_WORDS.length)]).append(' ');
+            }
+            game.setName(name.append(i).toString());
+            games.add(game);
+            appId += 1 + random.nextInt(MAX_APP_ID_GAP);
+        }
+        return games;
+    }
+
+    /**
+     * Generates a response from the Steam API's GetAppList endpoint. A response containing every app on Steam holds
+     * around 150,000 apps, which is too large a fixture to keep in source control.
+     *
+     * @param apps the number of apps in the response.
+     * @return the raw bytes of the response.
+     */
+    public static byte[] appList(int apps) {
+        StringBuilder response = new StringBuilder(apps * 48).append("{\"applist\":{\"apps\":[");
+        List<Game> games = games(apps);
+        for (int i = 0; i < games.size(); i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            response.append("{\"appid\":").append(games.get(i).getAppid())
+                    .append(",\"name\":\"").append(games.get(i).getName()).append("\"}");
+        }
+        return response.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package sggc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sggc.models.Game;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link Game#equals} and {@link Game#hashCode} when games are held in sets, as they are for
+ * every app on Steam during a run. Lookups are made with distinct instances, as they are when the same app is parsed
+ * twice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameSetBenchmark {
+
+    @Param({"50000", "150000", "300000"})
+    private int apps;
+
+    private List<Game> games;
+    private List<Game> lookups;
+    private Set<Game> gameSet;
+
+    @Setup
+    public void setUp() {
+        games = Fixtures.games(apps);
+        lookups = Fixtures.games(apps);
+        gameSet = new HashSet<>(games);
+    }
+
+    @Benchmark
+    public Set<Game> buildSet() {
+        return new HashSet<>(games);
+    }
+
+    @Benchmark
+    public int containsAll() {
+        int found = 0;
+        for (Game game : lookups) {
+            if (gameSet.contains(game)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int hashAll() {
+        int hash = 0;
+        for (Game game : games) {
+            hash += game.hashCode();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,80 @@
+package sggc.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sggc.models.Game;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.BeanTableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-built Game table schema against the reflective bean schema, both in the cost of creating the
+ * schema, as paid once per cold start, and in the cost of mapping a single item in each direction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameTableSchemaBenchmark {
+
+    private TableSchema<Game> beanSchema;
+    private TableSchema<Game> staticSchema;
+    private Game game;
+    private Map<String, AttributeValue> item;
+
+    @Setup
+    public void setUp() {
+        beanSchema = TableSchema.fromBean(Game.class);
+        staticSchema = Game.TABLE_SCHEMA;
+        game = new Game();
+        game.setId("570");
+        game.setAppid("570");
+        game.setName("Dota 2");
+        game.setMultiplayer(true);
+        item = staticSchema.itemToMap(game, true);
+    }
+
+    @Benchmark
+    public TableSchema<Game> createBeanSchema() {
+        // fromBean caches schemas per class, so create the bean schema directly to measure a cold creation.
+        return BeanTableSchema.create(Game.class);
+    }
+
+    @Benchmark
+    public TableSchema<Game> createStaticSchema() {
+        return Game.createTableSchema();
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> beanItemToMap() {
+        return beanSchema.itemToMap(game, true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> staticItemToMap() {
+        return staticSchema.itemToMap(game, true);
+    }
+
+    @Benchmark
+    public Game beanMapToItem() {
+        return beanSchema.mapToItem(item);
+    }
+
+    @Benchmark
+    public Game staticMapToItem() {
+        return staticSchema.mapToItem(item);
+    }
+}
@@ -0,0 +1,41 @@
+package sggc.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import sggc.models.steam.GameCategory;
+import sggc.models.steam.GameData;
+
+import java.util.Collections;
+
+/**
+ * Represents the tree-based Get App Details parsing previously performed by SteamRequestSender, kept as a baseline
+ * for the streaming parser to be measured against.
+ */
+public class LegacyAppDetailsParser {
+
+    /**
+     * Parses a Get App Details response by building a parse tree, re-serialising the data object and parsing it again
+     * with a new Gson instance.
+     *
+     * @param stringToParse the response to parse.
+     * @return the parsed game details.
+     */
+    public GameData parse(String stringToParse) {
+        JsonObject obj = JsonParser.parseString(stringToParse).getAsJsonObject();
+        String gameId = obj.keySet().iterator().next();
+        JsonObject rootObject = obj.getAsJsonObject(gameId);
+        boolean responseSuccess = Boolean.parseBoolean(rootObject.get("success").toString());
+        if (!responseSuccess) {
+            return new GameData(Collections.singleton(new GameCategory(GameCategory.SteamGameCategory.MULTIPLAYER)));
+        }
+        JsonElement gameCategories = rootObject.get("data").getAsJsonObject().get("categories");
+        if (gameCategories == null || gameCategories.toString().trim().isEmpty()) {
+            return new GameData(Collections.singleton(new GameCategory(GameCategory.SteamGameCategory.MULTIPLAYER)));
+        }
+        rootObject = rootObject.getAsJsonObject("data");
+        Gson gson = new Gson();
+        return gson.fromJson(rootObject.toString(), GameData.class);
+    }
+}
@@ -0,0 +1,93 @@
+package sggc.benchmarks;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sggc.models.AppIdSet;
+import sggc.models.Game;
+import sggc.models.steam.Applist;
+import sggc.models.steam.GetAppListResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the diff of the games on Steam against those already persisted, as performed by
+ * {@code UpdateGameCollectionLambda.getNonPersistedGames}, along with building the set of persisted appids from a
+ * scan. The appid bitmap used by the lambda is compared against the set of appid strings it replaced, and the diff of
+ * the columnar app list the lambda now reads from Steam against the diff of a Set of games. Every game but the newest
+ * 1% is persisted, as after a typical run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NonPersistedGamesBenchmark {
+
+    private static final double NEW_GAME_RATIO = 0.01;
+
+    @Param({"50000", "150000", "300000"})
+    private int apps;
+
+    private Set<Game> allGames;
+    private Applist applist;
+    private List<String> persistedAppIdList;
+    private AppIdSet persistedAppIds;
+    private Set<String> persistedAppIdStrings;
+
+    @Setup
+    public void setUp() {
+        List<Game> games = Fixtures.games(apps);
+        allGames = new HashSet<>(games);
+        applist = new Gson().fromJson(new String(Fixtures.appList(apps), StandardCharsets.UTF_8),
+                GetAppListResponse.class).getApplist();
+        persistedAppIdList = games.subList(0, (int) (apps * (1 - NEW_GAME_RATIO))).stream()
+                .map(Game::getAppid)
+                .collect(Collectors.toList());
+        persistedAppIds = buildAppIdSet();
+        persistedAppIdStrings = buildStringSet();
+    }
+
+    @Benchmark
+    public AppIdSet buildAppIdSet() {
+        AppIdSet appIds = new AppIdSet();
+        persistedAppIdList.forEach(appIds::add);
+        return appIds;
+    }
+
+    @Benchmark
+    public Set<String> buildStringSet() {
+        return new HashSet<>(persistedAppIdList);
+    }
+
+    @Benchmark
+    public Set<Game> appIdSetDiff() {
+        return allGames.stream().filter(game -> !persistedAppIds.contains(game.getAppid())).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public Set<Game> applistDiff() {
+        return applist.getGamesNotIn(persistedAppIds);
+    }
+
+    @Benchmark
+    public Set<Game> stringSetDiff() {
+        return allGames.stream().filter(game -> !persistedAppIdStrings.contains(game.getAppid()))
+                .collect(Collectors.toSet());
+    }
+}
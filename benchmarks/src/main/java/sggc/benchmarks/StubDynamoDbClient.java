@@ -0,0 +1,26 @@
+package sggc.benchmarks;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+
+/**
+ * Represents a DynamoDB client which accepts every batch write without touching the network, so the cost of
+ * preparing batch writes can be measured in isolation.
+ */
+public class StubDynamoDbClient implements DynamoDbClient {
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        return BatchWriteItemResponse.builder().build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
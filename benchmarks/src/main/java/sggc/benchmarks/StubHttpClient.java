@@ -0,0 +1,67 @@
+package sggc.benchmarks;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Represents an HTTP client which answers every request with the same successful response, without touching the
+ * network, so the handling of a response can be measured in isolation.
+ */
+@SuppressWarnings("deprecation")
+public class StubHttpClient extends CloseableHttpClient {
+
+    private final byte[] responseBody;
+
+    /**
+     * @param responseBody the body of the response to answer every request with.
+     */
+    public StubHttpClient(byte[] responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) {
+        StubHttpResponse response = new StubHttpResponse();
+        response.setEntity(new ByteArrayEntity(responseBody, ContentType.APPLICATION_JSON));
+        return response;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public HttpParams getParams() {
+        return new BasicHttpParams();
+    }
+
+    @Override
+    public ClientConnectionManager getConnectionManager() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Represents a successful response which holds no connection, so closing it does nothing.
+     */
+    private static class StubHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        StubHttpResponse() {
+            super(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
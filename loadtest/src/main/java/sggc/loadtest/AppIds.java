@@ -0,0 +1,33 @@
+package sggc.loadtest;
+
+import java.util.Random;
+
+/**
+ * Represents a collection of helper methods for generating Steam appids.
+ */
+public final class AppIds {
+
+    // Real appids start at 10 and are spaced out as apps are removed, so generated appids are spread in the same way.
+    private static final int FIRST_APP_ID = 10;
+    private static final int MAX_APP_ID_GAP = 20;
+
+    private AppIds() {
+    }
+
+    /**
+     * Generates the specified number of appids. The same count always generates the same appids.
+     *
+     * @param count the number of appids to generate.
+     * @return the generated appids, in ascending order.
+     */
+    public static int[] generate(int count) {
+        Random random = new Random(count);
+        int[] appIds = new int[count];
+        int appId = FIRST_APP_ID;
+        for (int i = 0; i < count; i++) {
+            appIds[i] = appId;
+            appId += 1 + random.nextInt(MAX_APP_ID_GAP);
+        }
+        return appIds;
+    }
+}
@@ -0,0 +1,44 @@
+package sggc.loadtest;
+
+import sggc.lambdas.UpdateGameCollectionLambda;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Entrypoint for the JVM a scenario is run in, which invokes the lambda once, as on a cold start, and records how long
+ * it took and the peak heap used. The peak is summed across the heap's memory pools, so is an upper bound. Each scenario runs in a fresh JVM as the lambda reads its configuration from the
+ * environment and keeps clients in static fields between invocations.
+ */
+public class LambdaRunner {
+
+    /**
+     * Runs the lambda.
+     *
+     * @param args the path of the file to write the result to, as the elapsed milliseconds and the peak heap bytes
+     *             separated by a space.
+     * @throws IOException if the result could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        // As if run with the maximum lambda timeout of 15 minutes.
+        new UpdateGameCollectionLambda().handleRequestUntil(Instant.now().plus(Duration.ofMinutes(15)));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long peakHeapBytes = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        Files.writeString(Path.of(args[0]), elapsedMillis + " " + peakHeapBytes, StandardCharsets.UTF_8);
+        // The lambda's thread pools and refresh threads are not meant to outlive the container.
+        System.exit(0);
+    }
+}
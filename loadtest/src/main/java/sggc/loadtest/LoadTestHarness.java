@@ -0,0 +1,338 @@
+package sggc.loadtest;
+
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+import lombok.extern.slf4j.Slf4j;
+import sggc.infrastructure.DynamoDbAppIdIndexStore;
+import sggc.infrastructure.DynamoDbBatchWriter;
+import sggc.models.Game;
+import sggc.models.PersistedAppIdIndex;
+import sggc.models.SyncCheckpoint;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Entrypoint for the load test harness, which runs {@code UpdateGameCollectionLambda} against a stub Steam server and
+ * an in-process DynamoDB Local, reporting the throughput, appdetails latency and peak heap of each scenario.
+ */
+@Slf4j
+public class LoadTestHarness {
+
+    private static final String REGION = "us-east-1";
+    private static final String GAME_TABLE_NAME = "Game";
+    private static final String CHECKPOINT_TABLE_NAME = "GameCollectionCheckpoint";
+    private static final String APP_DETAILS_CACHE_TABLE_NAME = "AppDetailsCache";
+    private static final String SQLITE_LIBRARY_PATH_PROPERTY = "sqlite4java.library.path";
+    private static final String DEFAULT_SQLITE_LIBRARY_PATH = "target/native-libs";
+
+    /**
+     * Runs the load test.
+     *
+     * @param args the names of the scenarios to run, or none to run every default scenario.
+     * @throws Exception if the stand-ins could not be started or a scenario could not be run.
+     */
+    public static void main(String[] args) throws Exception {
+        List<Scenario> scenarios = selectScenarios(List.of(args));
+        if (System.getProperty(SQLITE_LIBRARY_PATH_PROPERTY) == null) {
+            System.setProperty(SQLITE_LIBRARY_PATH_PROPERTY, DEFAULT_SQLITE_LIBRARY_PATH);
+        }
+
+        int dynamoDbPort = findFreePort();
+        DynamoDBProxyServer dynamoDb = ServerRunner.createServerFromCommandLineArgs(
+                new String[]{"-inMemory", "-disableTelemetry", "-port", String.valueOf(dynamoDbPort)});
+        dynamoDb.start();
+        URI dynamoDbEndpoint = URI.create("http://localhost:" + dynamoDbPort);
+        List<ScenarioResult> results = new ArrayList<>();
+        try (StubSteamServer steam = new StubSteamServer();
+             DynamoDbClient dynamoDbClient = DynamoDbClient.builder()
+                     .region(Region.of(REGION))
+                     .credentialsProvider(credentials())
+                     .httpClientBuilder(ApacheHttpClient.builder())
+                     .endpointOverride(dynamoDbEndpoint)
+                     .build()) {
+            DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                    .dynamoDbClient(dynamoDbClient)
+                    .build();
+            for (Scenario scenario : scenarios) {
+                log.info("Preparing scenario [{}].", scenario.getName());
+                steam.configure(scenario);
+                List<String> existingTables = dynamoDbClient.listTables().tableNames();
+                DynamoDbTable<Game> gameTable = recreateTable(enhancedClient, existingTables, GAME_TABLE_NAME,
+                        Game.TABLE_SCHEMA);
+                recreateTable(enhancedClient, existingTables, CHECKPOINT_TABLE_NAME, SyncCheckpoint.TABLE_SCHEMA);
+                seedPersistedGames(enhancedClient, gameTable, steam.getAppIds(), scenario.getPersistedApps(),
+                        Boolean.parseBoolean(scenario.getLambdaEnvironment().get("APPID_KEYS")));
+                if (Boolean.parseBoolean(scenario.getLambdaEnvironment().get("PERSISTED_APP_ID_INDEX"))) {
+                    seedAppIdIndex(enhancedClient, steam.getAppIds(), scenario.getPersistedApps());
+                }
+
+                log.info("Running scenario [{}].", scenario.getName());
+                LambdaRun run = runLambda(scenario, steam.getAddress(), dynamoDbEndpoint);
+                long writtenGames = countItems(dynamoDbClient) - scenario.getPersistedApps();
+                results.add(new ScenarioResult(scenario, run, writtenGames, steam.getAppDetailsLatencies(),
+                        steam.getThrottledRequests()));
+            }
+        } finally {
+            dynamoDb.stop();
+        }
+        printReport(results);
+    }
+
+    /**
+     * Selects the scenarios to run.
+     *
+     * @param names the names of the scenarios to run, or an empty list to run every default scenario.
+     * @return the scenarios to run.
+     */
+    private static List<Scenario> selectScenarios(List<String> names) {
+        if (names.isEmpty()) {
+            return Scenario.defaults();
+        }
+        List<Scenario> scenarios = Scenario.defaults().stream()
+                .filter(scenario -> names.contains(scenario.getName()))
+                .collect(Collectors.toList());
+        if (scenarios.size() != names.size()) {
+            throw new IllegalArgumentException(String.format("Unknown scenario in [%s], expected any of [%s].", names,
+                    Scenario.defaults().stream().map(Scenario::getName).collect(Collectors.joining(", "))));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Deletes a table if it exists, then creates it empty.
+     *
+     * @param client         the client to manage the table with.
+     * @param existingTables the names of the tables which currently exist.
+     * @param tableName      the name of the table.
+     * @param schema         the schema of the table's items.
+     * @param <T>            the type of the table's items.
+     * @return the recreated table.
+     */
+    private static <T> DynamoDbTable<T> recreateTable(DynamoDbEnhancedClient client, List<String> existingTables,
+                                                      String tableName, TableSchema<T> schema) {
+        DynamoDbTable<T> table = client.table(tableName, schema);
+        if (existingTables.contains(tableName)) {
+            table.deleteTable();
+        }
+        table.createTable();
+        return table;
+    }
+
+    /**
+     * Writes the games of a scenario which should already be persisted before the lambda runs.
+     *
+     * @param client         the client to write the games with.
+     * @param gameTable      the table to write the games to.
+     * @param appIds         the appids of every app in the scenario, in ascending order.
+     * @param persistedGames the number of games, from the lowest appid, to write.
+     * @param appIdKeys      whether to key the games by appid, as the lambda does when 'APPID_KEYS' is true.
+     */
+    private static void seedPersistedGames(DynamoDbEnhancedClient client, DynamoDbTable<Game> gameTable, int[] appIds,
+                                           int persistedGames, boolean appIdKeys) {
+        List<Game> games = new ArrayList<>(persistedGames);
+        for (int i = 0; i < persistedGames; i++) {
+            Game game = new Game();
+            game.setId(appIdKeys ? String.valueOf(appIds[i]) : UUID.randomUUID().toString());
+            game.setAppid(String.valueOf(appIds[i]));
+            game.setName("Load Test App " + appIds[i]);
+            game.setMultiplayer(false);
+            games.add(game);
+        }
+        new DynamoDbBatchWriter(client).batchWrite(Game.class, games, gameTable);
+        log.info("Seeded [{}] persisted games.", persistedGames);
+    }
+
+    /**
+     * Saves a persisted appid index which lags behind the seeded games, as though the last run to save games failed
+     * before updating it, so that the lambda has to look up the games missing from it.
+     *
+     * @param client         the client to save the index with.
+     * @param appIds         the appids of every app in the scenario, in ascending order.
+     * @param persistedGames the number of games, from the lowest appid, which have been seeded.
+     */
+    private static void seedAppIdIndex(DynamoDbEnhancedClient client, int[] appIds, int persistedGames) {
+        int indexedGames = persistedGames - persistedGames / 100;
+        new DynamoDbAppIdIndexStore(client.table(CHECKPOINT_TABLE_NAME, PersistedAppIdIndex.TABLE_SCHEMA))
+                .update(index -> {
+                    for (int i = 0; i < indexedGames; i++) {
+                        index.add(String.valueOf(appIds[i]));
+                    }
+                });
+        log.info("Seeded persisted appid index with [{}] of [{}] persisted games.", indexedGames, persistedGames);
+    }
+
+    /**
+     * Runs the lambda for a scenario in a fresh JVM, configured through its environment to use the stand-ins.
+     *
+     * @param scenario         the scenario to run.
+     * @param steamAddress     the address of the stub Steam server.
+     * @param dynamoDbEndpoint the endpoint of DynamoDB Local.
+     * @return the elapsed time and peak heap of the run.
+     * @throws IOException          if the JVM could not be started or its result could not be read.
+     * @throws InterruptedException if interrupted while waiting for the run to finish.
+     */
+    private static LambdaRun runLambda(Scenario scenario, String steamAddress, URI dynamoDbEndpoint)
+            throws IOException, InterruptedException {
+        Path resultFile = Files.createTempFile("sggc-loadtest-", ".result");
+        try {
+            ProcessBuilder processBuilder = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xmx" + scenario.getHeapMegabytes() + "m",
+                    "-cp", System.getProperty("java.class.path"),
+                    LambdaRunner.class.getName(),
+                    resultFile.toString())
+                    .inheritIO();
+            Map<String, String> environment = processBuilder.environment();
+            environment.put("REGION", REGION);
+            environment.put("AWS_REGION", REGION);
+            environment.put("AWS_ACCESS_KEY_ID", "loadtest");
+            environment.put("AWS_SECRET_ACCESS_KEY", "loadtest");
+            environment.put("DYNAMODB_ENDPOINT", dynamoDbEndpoint.toString());
+            environment.put("SECRETS_MANAGER_ENDPOINT", steamAddress);
+            environment.put("STEAM_API_ADDRESS", steamAddress);
+            environment.put("STEAM_STORE_ADDRESS", steamAddress);
+            environment.put("CHECKPOINT_TABLE_NAME", CHECKPOINT_TABLE_NAME);
+            environment.putAll(scenario.getLambdaEnvironment());
+            if (environment.containsKey("APP_DETAILS_CACHE_TABLE_NAME")) {
+                throw new IllegalArgumentException(String.format("Scenario [%s] may not use the app details cache "
+                        + "table, as it would be shared between scenarios.", scenario.getName()));
+            }
+
+            int exitCode = processBuilder.start().waitFor();
+            if (exitCode != 0) {
+                throw new IllegalStateException(String.format("Scenario [%s] exited with code [%d].",
+                        scenario.getName(), exitCode));
+            }
+            String[] result = Files.readString(resultFile, StandardCharsets.UTF_8).trim().split(" ");
+            return new LambdaRun(Long.parseLong(result[0]), Long.parseLong(result[1]));
+        } finally {
+            Files.deleteIfExists(resultFile);
+        }
+    }
+
+    /**
+     * Counts the items in the Game table.
+     *
+     * @param client the client to count the items with.
+     * @return the number of items in the table.
+     */
+    private static long countItems(DynamoDbClient client) {
+        return client.scanPaginator(request -> request.tableName(GAME_TABLE_NAME).select(Select.COUNT)).stream()
+                .mapToLong(ScanResponse::count)
+                .sum();
+    }
+
+    /**
+     * Prints a table of the results of every scenario.
+     *
+     * @param results the results to print.
+     */
+    private static void printReport(List<ScenarioResult> results) {
+        String format = "%-16s %9s %9s %10s %11s %11s %11s %10s %12s%n";
+        System.out.printf(format, "Scenario", "Apps", "New", "Written", "Games/sec", "p50 (ms)", "p99 (ms)", "429s",
+                "Peak heap");
+        for (ScenarioResult result : results) {
+            System.out.printf(format, result.scenario.getName(), result.scenario.getApps(),
+                    result.scenario.getNewApps(), result.writtenGames,
+                    String.format("%.1f", result.getGamesPerSecond()),
+                    String.format("%.1f", result.getLatencyPercentileMillis(0.5)),
+                    String.format("%.1f", result.getLatencyPercentileMillis(0.99)),
+                    result.throttledRequests, result.run.peakHeapBytes / (1024 * 1024) + " MB");
+        }
+    }
+
+    /**
+     * Finds a free port of the loopback interface.
+     *
+     * @return the free port.
+     * @throws IOException if no port could be found.
+     */
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * @return credentials accepted by DynamoDB Local, which does not check them.
+     */
+    private static StaticCredentialsProvider credentials() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create("loadtest", "loadtest"));
+    }
+
+    /**
+     * Represents the measurements taken by the JVM the lambda was run in.
+     */
+    private static final class LambdaRun {
+        private final long elapsedMillis;
+        private final long peakHeapBytes;
+
+        private LambdaRun(long elapsedMillis, long peakHeapBytes) {
+            this.elapsedMillis = elapsedMillis;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+    }
+
+    /**
+     * Represents the outcome of a scenario.
+     */
+    private static final class ScenarioResult {
+        private final Scenario scenario;
+        private final LambdaRun run;
+        private final long writtenGames;
+        private final List<Long> sortedLatencies;
+        private final long throttledRequests;
+
+        private ScenarioResult(Scenario scenario, LambdaRun run, long writtenGames, List<Long> latencies,
+                               long throttledRequests) {
+            this.scenario = scenario;
+            this.run = run;
+            this.writtenGames = writtenGames;
+            this.sortedLatencies = new ArrayList<>(latencies);
+            Collections.sort(sortedLatencies);
+            this.throttledRequests = throttledRequests;
+        }
+
+        /**
+         * @return the number of games written per second of the run, including the time taken to find them.
+         */
+        private double getGamesPerSecond() {
+            return run.elapsedMillis == 0 ? 0 : writtenGames * 1000.0 / run.elapsedMillis;
+        }
+
+        /**
+         * Calculates a percentile of the time taken to serve appdetails requests, by the nearest-rank method.
+         *
+         * @param percentile the percentile to calculate, between 0 and 1.
+         * @return the latency at the percentile in milliseconds, or 0 if no requests were served.
+         */
+        private double getLatencyPercentileMillis(double percentile) {
+            if (sortedLatencies.isEmpty()) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sortedLatencies.size());
+            return sortedLatencies.get(Math.max(rank - 1, 0)) / 1_000_000.0;
+        }
+    }
+}
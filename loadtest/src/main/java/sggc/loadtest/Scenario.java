@@ -0,0 +1,126 @@
+package sggc.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a load test scenario; the shape of the Steam catalogue and the behaviour of the stub Steam server, along
+ * with the configuration the lambda is run with.
+ */
+@Getter
+@Builder
+public class Scenario {
+
+    // Real appdetails responses are several kilobytes, mostly descriptions the lambda does not read.
+    private static final int TYPICAL_APP_DETAILS_PADDING_BYTES = 4096;
+
+    private final String name;
+    // The number of apps in the GetAppList response.
+    private final int apps;
+    // The fraction of apps already in the Game table before the run.
+    private final double persistedRatio;
+    private final int appDetailsLatencyMillis;
+    // Each appdetails request takes a uniformly random time within this many milliseconds either side of the latency.
+    private final int appDetailsLatencyJitterMillis;
+    // The fraction of appdetails requests answered with 429 Too Many Requests.
+    private final double throttleRate;
+    @Builder.Default
+    private final int appDetailsPaddingBytes = TYPICAL_APP_DETAILS_PADDING_BYTES;
+    @Builder.Default
+    private final int heapMegabytes = 1024;
+    // Environment variables the lambda is run with, on top of those pointing it at the stand-ins.
+    @Builder.Default
+    private final Map<String, String> lambdaEnvironment = Map.of();
+
+    /**
+     * @return the number of apps which are not yet persisted, and so must be resolved and written by the lambda.
+     */
+    public int getNewApps() {
+        return apps - getPersistedApps();
+    }
+
+    /**
+     * @return the number of apps already in the Game table before the run.
+     */
+    public int getPersistedApps() {
+        return (int) (apps * persistedRatio);
+    }
+
+    /**
+     * @return the scenarios run when none are named.
+     */
+    public static List<Scenario> defaults() {
+        return List.of(
+                Scenario.builder()
+                        .name("baseline")
+                        .apps(50000)
+                        .persistedRatio(0.98)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .lambdaEnvironment(Map.of("STEAM_STORE_RATE_LIMITING", "false"))
+                        .build(),
+                Scenario.builder()
+                        .name("throttled")
+                        .apps(50000)
+                        .persistedRatio(0.98)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .throttleRate(0.1)
+                        .lambdaEnvironment(Map.of(
+                                "STEAM_STORE_REQUESTS_PER_WINDOW", "100",
+                                "STEAM_STORE_WINDOW_SECONDS", "1"))
+                        .build(),
+                Scenario.builder()
+                        .name("pipelined")
+                        .apps(50000)
+                        .persistedRatio(0.98)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .lambdaEnvironment(Map.of(
+                                "STEAM_STORE_RATE_LIMITING", "false",
+                                "PIPELINED_WRITES", "true",
+                                "ASYNC_DYNAMODB", "true"))
+                        .build(),
+                Scenario.builder()
+                        .name("coordinator")
+                        .apps(50000)
+                        .persistedRatio(0.98)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .lambdaEnvironment(Map.of(
+                                "STEAM_STORE_RATE_LIMITING", "false",
+                                "RUN_MODE", "coordinator",
+                                "APPID_KEYS", "true",
+                                "SHARD_SIZE", "250"))
+                        .build(),
+                Scenario.builder()
+                        .name("appid-keys")
+                        .apps(50000)
+                        .persistedRatio(0.98)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .lambdaEnvironment(Map.of("STEAM_STORE_RATE_LIMITING", "false", "APPID_KEYS", "true"))
+                        .build(),
+                Scenario.builder()
+                        .name("appid-index")
+                        .apps(50000)
+                        .persistedRatio(0.98)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .lambdaEnvironment(Map.of("STEAM_STORE_RATE_LIMITING", "false", "APPID_KEYS", "true",
+                                "PERSISTED_APP_ID_INDEX", "true"))
+                        .build(),
+                Scenario.builder()
+                        .name("full-catalogue")
+                        .apps(300000)
+                        .persistedRatio(0.995)
+                        .appDetailsLatencyMillis(50)
+                        .appDetailsLatencyJitterMillis(25)
+                        .heapMegabytes(512)
+                        .lambdaEnvironment(Map.of("STEAM_STORE_RATE_LIMITING", "false", "SCAN_SEGMENTS", "4"))
+                        .build());
+    }
+}
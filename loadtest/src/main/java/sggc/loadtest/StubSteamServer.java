@@ -0,0 +1,273 @@
+package sggc.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a local stand-in for the Steam Web API, the Steam Store and AWS Secrets Manager, serving generated
+ * responses with configurable latency and throttling. Every request is served on its own thread, so slow responses do
+ * not hold up one another.
+ */
+public class StubSteamServer implements AutoCloseable {
+
+    public static final String STEAM_API_KEY = "load-test-key";
+
+    // Every third app is multiplayer, so both outcomes are exercised.
+    private static final int MULTIPLAYER_APP_INTERVAL = 3;
+    private static final int MULTIPLAYER_CATEGORY_ID = 1;
+    private static final int SINGLE_PLAYER_CATEGORY_ID = 2;
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Long> appDetailsLatencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong throttledRequests = new AtomicLong();
+
+    private volatile Scenario scenario;
+    private volatile int[] appIds;
+    private volatile byte[] appListResponse;
+    private volatile String appDetailsPadding;
+
+    /**
+     * Starts the server on a free port of the loopback interface.
+     *
+     * @throws IOException if the server could not be started.
+     */
+    public StubSteamServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ISteamApps/GetAppList/v2/", this::handleAppList);
+        server.createContext("/IStoreService/GetAppList/v1/", this::handleStoreAppList);
+        server.createContext("/api/appdetails/", this::handleAppDetails);
+        server.createContext("/", this::handleGetSecretValue);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Configures the server for a scenario, generating its app list and clearing any recorded statistics.
+     *
+     * @param scenario the scenario to serve.
+     */
+    public void configure(Scenario scenario) {
+        this.appIds = AppIds.generate(scenario.getApps());
+        this.appListResponse = createAppListResponse(appIds);
+        this.appDetailsPadding = "x".repeat(scenario.getAppDetailsPaddingBytes());
+        this.scenario = scenario;
+        appDetailsLatencies.clear();
+        throttledRequests.set(0);
+    }
+
+    /**
+     * @return the appids of every app in the configured scenario, in ascending order.
+     */
+    public int[] getAppIds() {
+        return appIds;
+    }
+
+    /**
+     * @return the address the server can be reached at.
+     */
+    public String getAddress() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the time taken to serve each successful appdetails request since the scenario was configured, in
+     * nanoseconds.
+     */
+    public List<Long> getAppDetailsLatencies() {
+        synchronized (appDetailsLatencies) {
+            return new ArrayList<>(appDetailsLatencies);
+        }
+    }
+
+    /**
+     * @return the number of appdetails requests answered with 429 Too Many Requests since the scenario was configured.
+     */
+    public long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serves the Steam Web API's GetAppList endpoint, responding with every app in the scenario.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the response could not be written.
+     */
+    private void handleAppList(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, appListResponse);
+    }
+
+    /**
+     * Serves the Steam Store service's GetAppList endpoint, responding with a page of the apps after the requested
+     * appid.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the response could not be written.
+     */
+    private void handleStoreAppList(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange);
+        int lastAppId = Integer.parseInt(query.getOrDefault("last_appid", "0"));
+        int maxResults = Integer.parseInt(query.getOrDefault("max_results", "10000"));
+        int[] currentAppIds = appIds;
+        int start = Arrays.binarySearch(currentAppIds, lastAppId + 1);
+        start = start < 0 ? -start - 1 : start;
+        int end = Math.min(start + maxResults, currentAppIds.length);
+
+        StringBuilder response = new StringBuilder("{\"response\":{\"apps\":[");
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                response.append(',');
+            }
+            appendApp(response, currentAppIds[i]);
+        }
+        response.append(']');
+        if (end < currentAppIds.length) {
+            response.append(",\"have_more_results\":true,\"last_appid\":").append(currentAppIds[end - 1]);
+        }
+        respond(exchange, 200, response.append("}}").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Serves the Steam Store's appdetails endpoint, after the scenario's latency, unless the request is chosen to be
+     * throttled.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the response could not be written.
+     */
+    private void handleAppDetails(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Scenario currentScenario = scenario;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < currentScenario.getThrottleRate()) {
+            throttledRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            respond(exchange, 429, new byte[0]);
+            return;
+        }
+        int jitter = currentScenario.getAppDetailsLatencyJitterMillis();
+        long latency = currentScenario.getAppDetailsLatencyMillis() + (jitter > 0 ? random.nextInt(-jitter, jitter + 1) : 0);
+        try {
+            Thread.sleep(Math.max(latency, 0));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        StringBuilder response = new StringBuilder("{");
+        String[] requestedAppIds = parseQuery(exchange).getOrDefault("appids", "").split(",");
+        for (int i = 0; i < requestedAppIds.length; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            int appId = Integer.parseInt(requestedAppIds[i]);
+            int categoryId = appId % MULTIPLAYER_APP_INTERVAL == 0 ? MULTIPLAYER_CATEGORY_ID : SINGLE_PLAYER_CATEGORY_ID;
+            response.append('"').append(appId).append("\":{\"success\":true,\"data\":{\"steam_appid\":").append(appId)
+                    .append(",\"detailed_description\":\"").append(appDetailsPadding)
+                    .append("\",\"categories\":[{\"id\":").append(categoryId).append(",\"description\":\"Stub\"}]}}");
+        }
+        respond(exchange, 200, response.append('}').toString().getBytes(StandardCharsets.UTF_8));
+        appDetailsLatencies.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Serves the AWS Secrets Manager GetSecretValue action, responding with the Steam API key whichever secret is
+     * requested.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the response could not be written.
+     */
+    private void handleGetSecretValue(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.1");
+        String response = String.format("{\"ARN\":\"arn:aws:secretsmanager:us-east-1:000000000000:secret:SteamAPIKey\","
+                + "\"Name\":\"SteamAPIKey\",\"SecretString\":\"%s\"}", STEAM_API_KEY);
+        respond(exchange, 200, response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds a GetAppList response containing the provided apps.
+     *
+     * @param appIds the appids of the apps in the response.
+     * @return the raw bytes of the response.
+     */
+    private static byte[] createAppListResponse(int[] appIds) {
+        StringBuilder response = new StringBuilder(appIds.length * 40).append("{\"applist\":{\"apps\":[");
+        for (int i = 0; i < appIds.length; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            appendApp(response, appIds[i]);
+        }
+        return response.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends an app of an app list response.
+     *
+     * @param response the response to append to.
+     * @param appId    the appid of the app.
+     */
+    private static void appendApp(StringBuilder response, int appId) {
+        response.append("{\"appid\":").append(appId).append(",\"name\":\"Load Test App ").append(appId).append("\"}");
+    }
+
+    /**
+     * Parses the query parameters of a request.
+     *
+     * @param exchange the request.
+     * @return a map of parameter name to value.
+     */
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(parameter.substring(0, separator),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Writes a response.
+     *
+     * @param exchange   the request and response.
+     * @param statusCode the status code of the response.
+     * @param body       the body of the response.
+     * @throws IOException if the response could not be written.
+     */
+    private static void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
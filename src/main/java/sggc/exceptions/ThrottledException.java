@@ -0,0 +1,22 @@
+package sggc.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Represents an exception to be thrown when an external API rejects a request because too many requests have been made.
+ */
+@Getter
+public class ThrottledException extends ApiException {
+
+    /**
+     * How long the API asked to be left alone for before retrying, or null if it did not say.
+     */
+    private final Duration retryAfter;
+
+    public ThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
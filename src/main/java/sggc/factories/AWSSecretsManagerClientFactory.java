@@ -1,22 +1,48 @@
 package sggc.factories;
 
+import sggc.utils.EnvironmentUtils;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClientBuilder;
+
+import java.net.URI;
 
 /**
  * Represents a factory for creating clients to interact with a local AWS Secrets Manager instance.
  */
 public class AWSSecretsManagerClientFactory {
 
+    public static final String SECRETS_MANAGER_ENDPOINT_VARIABLE = "SECRETS_MANAGER_ENDPOINT";
+
     /**
      * Initializes a new {@link SecretsManagerClient} object; A client for interacting with an AWS Secrets Manager instance.
-     * The region of the client is determined by the 'REGION' environment variable.
+     * The client is backed by the Apache HTTP client. The region of the client is
+     * determined by the 'REGION' environment variable, and the endpoint may be overridden by the
+     * 'SECRETS_MANAGER_ENDPOINT' environment variable.
      *
      * @return a new client for interacting with a local AWS Secrets Manager instance.
      */
     public SecretsManagerClient createClient() {
-        return SecretsManagerClient.builder()
+        return createClient(EnvironmentUtils.getUriOrNull(SECRETS_MANAGER_ENDPOINT_VARIABLE));
+    }
+
+    /**
+     * Initializes a new {@link SecretsManagerClient} object; A client for interacting with an AWS Secrets Manager instance.
+     * The client is backed by the Apache HTTP client. The region of the client is determined by the 'REGION'
+     * environment variable.
+     *
+     * @param endpointOverride the endpoint to send requests to, such as that of a local stand-in, or null to use the
+     *                         regional endpoint.
+     * @return a new client for interacting with an AWS Secrets Manager instance.
+     */
+    public SecretsManagerClient createClient(URI endpointOverride) {
+        SecretsManagerClientBuilder clientBuilder = SecretsManagerClient.builder()
                 .region(Region.of(System.getenv("REGION")))
-                .build();
+                .httpClientBuilder(ApacheHttpClient.builder());
+        if (endpointOverride != null) {
+            clientBuilder.endpointOverride(endpointOverride);
+        }
+        return clientBuilder.build();
     }
 }
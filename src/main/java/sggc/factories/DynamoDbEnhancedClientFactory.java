@@ -1,26 +1,89 @@
 package sggc.factories;
 
+import sggc.utils.EnvironmentUtils;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+
+import java.net.URI;
 
 /**
  * Represents a factory for creating enhanced clients to interact with an Amazon DynamoDB instance.
  */
 public class DynamoDbEnhancedClientFactory {
 
+    public static final String DYNAMODB_ENDPOINT_VARIABLE = "DYNAMODB_ENDPOINT";
+
     /**
-     * Initializes a new {@link DynamoDbEnhancedClient} object; A client for interacting with an Amazon DynamoDB instance.
-     * The region of the client is determined by the 'REGION' environment variable.
+     * Initializes a new {@link DynamoDbEnhancedClient} object; A client for interacting with an Amazon DynamoDB instance,
+     * backed by the Apache HTTP client. The region of the client is determined by the 'REGION' environment variable,
+     * and the endpoint may be overridden by the 'DYNAMODB_ENDPOINT' environment variable.
      *
      * @return a new client for interacting with a local Amazon DynamoDB instance.
      */
     public DynamoDbEnhancedClient createEnhancedClient() {
-        DynamoDbClient dynamoDbClient = DynamoDbClient.builder()
+        return createEnhancedClient(EnvironmentUtils.getUriOrNull(DYNAMODB_ENDPOINT_VARIABLE));
+    }
+
+    /**
+     * Initializes a new {@link DynamoDbEnhancedClient} object; A client for interacting with an Amazon DynamoDB instance,
+     * backed by the Apache HTTP client. The region of the client is determined by the 'REGION' environment variable.
+     *
+     * @param endpointOverride the endpoint to send requests to, such as that of DynamoDB Local, or null to use the
+     *                         regional endpoint.
+     * @return a new client for interacting with an Amazon DynamoDB instance.
+     */
+    public DynamoDbEnhancedClient createEnhancedClient(URI endpointOverride) {
+        DynamoDbClientBuilder dynamoDbClientBuilder = DynamoDbClient.builder()
                 .region(Region.of(System.getenv("REGION")))
-                .build();
+                .httpClientBuilder(ApacheHttpClient.builder());
+        if (endpointOverride != null) {
+            dynamoDbClientBuilder.endpointOverride(endpointOverride);
+        }
         return DynamoDbEnhancedClient.builder()
-                .dynamoDbClient(dynamoDbClient)
+                .dynamoDbClient(dynamoDbClientBuilder.build())
+                .build();
+    }
+
+    /**
+     * Initializes a new {@link DynamoDbEnhancedAsyncClient} object; A non-blocking client for interacting with an
+     * Amazon DynamoDB instance, backed by the Netty async HTTP client. The region of the client is determined by the
+     * 'REGION' environment variable, and the endpoint may be overridden by the 'DYNAMODB_ENDPOINT' environment
+     * variable.
+     *
+     * @param maxConcurrency the maximum number of concurrent requests the client will have open.
+     * @return a new async client for interacting with an Amazon DynamoDB instance.
+     */
+    public DynamoDbEnhancedAsyncClient createEnhancedAsyncClient(int maxConcurrency) {
+        return createEnhancedAsyncClient(maxConcurrency, EnvironmentUtils.getUriOrNull(DYNAMODB_ENDPOINT_VARIABLE));
+    }
+
+    /**
+     * Initializes a new {@link DynamoDbEnhancedAsyncClient} object; A non-blocking client for interacting with an
+     * Amazon DynamoDB instance, backed by the Netty async HTTP client. The region of the client is determined by the
+     * 'REGION' environment variable.
+     *
+     * @param maxConcurrency   the maximum number of concurrent requests the client will have open.
+     * @param endpointOverride the endpoint to send requests to, such as that of DynamoDB Local, or null to use the
+     *                         regional endpoint.
+     * @return a new async client for interacting with an Amazon DynamoDB instance.
+     */
+    public DynamoDbEnhancedAsyncClient createEnhancedAsyncClient(int maxConcurrency, URI endpointOverride) {
+        DynamoDbAsyncClientBuilder dynamoDbClientBuilder = DynamoDbAsyncClient.builder()
+                .region(Region.of(System.getenv("REGION")))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency));
+        if (endpointOverride != null) {
+            dynamoDbClientBuilder.endpointOverride(endpointOverride);
+        }
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbClientBuilder.build())
                 .build();
     }
 }
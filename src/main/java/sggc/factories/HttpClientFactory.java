@@ -0,0 +1,77 @@
+package sggc.factories;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a factory for creating pooled HTTP clients used to communicate with the Steam API.
+ */
+public class HttpClientFactory {
+
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 16;
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_SOCKET_TIMEOUT = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_CONNECTION_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(30);
+
+    // The Steam API and Steam Store are separate hosts, so are separate routes sharing the pool.
+    private static final int ROUTES = 2;
+    private static final Duration VALIDATE_AFTER_INACTIVITY = Duration.ofSeconds(2);
+
+    /**
+     * Initializes a new {@link CloseableHttpClient} object with the default pool size and timeouts.
+     *
+     * @return a new pooled HTTP client.
+     */
+    public CloseableHttpClient createClient() {
+        return createClient(DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_CONNECT_TIMEOUT, DEFAULT_SOCKET_TIMEOUT,
+                DEFAULT_CONNECTION_REQUEST_TIMEOUT, DEFAULT_KEEP_ALIVE);
+    }
+
+    /**
+     * Initializes a new {@link CloseableHttpClient} object; A client which keeps a pool of connections alive between
+     * requests to each host, negotiates gzip/deflate compressed responses and gives up on requests that stall.
+     *
+     * @param maxConnectionsPerRoute   the maximum number of connections open to each host at any one time.
+     * @param connectTimeout           the time after which establishing a connection is given up on.
+     * @param socketTimeout            the longest time to wait for data from an open connection.
+     * @param connectionRequestTimeout the longest time to wait for a connection to become free in the pool.
+     * @param keepAlive                how long idle connections are kept open for when the host does not say.
+     * @return a new pooled HTTP client.
+     */
+    public CloseableHttpClient createClient(int maxConnectionsPerRoute, Duration connectTimeout, Duration socketTimeout,
+                                            Duration connectionRequestTimeout, Duration keepAlive) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(maxConnectionsPerRoute * ROUTES);
+        connectionManager.setValidateAfterInactivity((int) VALIDATE_AFTER_INACTIVITY.toMillis());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) socketTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .setContentCompressionEnabled(true)
+                .build();
+
+        // Honour the host's Keep-Alive header if it sends one, otherwise fall back to the configured duration.
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long hostKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return hostKeepAlive > 0 ? hostKeepAlive : keepAlive.toMillis();
+        };
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package sggc.factories;
+
+import sggc.utils.EnvironmentUtils;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.SqsClientBuilder;
+
+import java.net.URI;
+
+/**
+ * Represents a factory for creating clients to interact with Amazon SQS.
+ */
+public class SqsClientFactory {
+
+    public static final String SQS_ENDPOINT_VARIABLE = "SQS_ENDPOINT";
+
+    /**
+     * Initializes a new {@link SqsClient} object; A client for interacting with Amazon SQS, backed by the Apache HTTP
+     * client. The region of the client is determined by the 'REGION' environment variable, and the endpoint may be
+     * overridden by the 'SQS_ENDPOINT' environment variable.
+     *
+     * @return a new client for interacting with Amazon SQS.
+     */
+    public SqsClient createClient() {
+        return createClient(EnvironmentUtils.getUriOrNull(SQS_ENDPOINT_VARIABLE));
+    }
+
+    /**
+     * Initializes a new {@link SqsClient} object; A client for interacting with Amazon SQS, backed by the Apache HTTP
+     * client. The region of the client is determined by the 'REGION' environment variable.
+     *
+     * @param endpointOverride the endpoint to send requests to, such as that of a local stand-in, or null to use the
+     *                         regional endpoint.
+     * @return a new client for interacting with Amazon SQS.
+     */
+    public SqsClient createClient(URI endpointOverride) {
+        SqsClientBuilder clientBuilder = SqsClient.builder()
+                .region(Region.of(System.getenv("REGION")))
+                .httpClientBuilder(ApacheHttpClient.builder());
+        if (endpointOverride != null) {
+            clientBuilder.endpointOverride(endpointOverride);
+        }
+        return clientBuilder.build();
+    }
+}
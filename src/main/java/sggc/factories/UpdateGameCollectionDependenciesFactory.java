@@ -0,0 +1,391 @@
+package sggc.factories;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import sggc.infrastructure.AppDetailsCache;
+import sggc.infrastructure.AwsSecretRetriever;
+import sggc.infrastructure.BatchReader;
+import sggc.infrastructure.BatchWriter;
+import sggc.infrastructure.CachingSecretRetriever;
+import sggc.infrastructure.DynamoDbAppDetailsCache;
+import sggc.infrastructure.DynamoDbAppIdIndexStore;
+import sggc.infrastructure.DynamoDbAsyncBatchReader;
+import sggc.infrastructure.DynamoDbAsyncBatchWriter;
+import sggc.infrastructure.DynamoDbBatchReader;
+import sggc.infrastructure.DynamoDbBatchWriter;
+import sggc.infrastructure.DynamoDbCheckpointStore;
+import sggc.infrastructure.DynamoDbTableScanner;
+import sggc.infrastructure.EmfMetricsPublisher;
+import sggc.infrastructure.InMemoryShardQueue;
+import sggc.infrastructure.LruAppDetailsCache;
+import sggc.infrastructure.RateLimitedSteamRequestSender;
+import sggc.infrastructure.SecretRetriever;
+import sggc.infrastructure.ShardQueue;
+import sggc.infrastructure.SqsShardQueue;
+import sggc.infrastructure.SteamRequestSender;
+import sggc.infrastructure.TieredAppDetailsCache;
+import sggc.lambdas.UpdateGameCollectionDependencies;
+import sggc.models.AppIdSet;
+import sggc.models.CachedAppDetails;
+import sggc.models.Game;
+import sggc.models.PersistedAppIdIndex;
+import sggc.models.SyncCheckpoint;
+import sggc.services.GameService;
+import sggc.services.MultiplayerStatusResolver;
+import sggc.utils.AdaptiveConcurrencyLimiter;
+import sggc.utils.ClassUtils;
+import sggc.utils.EnvironmentUtils;
+import sggc.utils.MetricsRegistry;
+import sggc.utils.TokenBucket;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Represents a factory for creating the clients and services used by the update game collection lambda, configured
+ * by the lambda's environment variables.
+ */
+@Slf4j
+public class UpdateGameCollectionDependenciesFactory {
+
+    private static final String DEFAULT_GAME_TABLE_NAME = "Game";
+    private static final String DEFAULT_CHECKPOINT_TABLE_NAME = "GameCollectionCheckpoint";
+    private static final int DEFAULT_SCAN_SEGMENTS = 1;
+    private static final int DEFAULT_RESOLUTION_PARALLELISM = 8;
+    private static final int DEFAULT_APP_DETAILS_TIMEOUT_SECONDS = 10;
+    private static final int DEFAULT_APP_DETAILS_CACHE_CAPACITY = 10000;
+    private static final int DEFAULT_APP_DETAILS_CACHE_TTL_HOURS = 24 * 7;
+    // The Steam Store allows roughly 200 app details requests every 5 minutes.
+    private static final int DEFAULT_STEAM_STORE_REQUESTS_PER_WINDOW = 200;
+    private static final int DEFAULT_STEAM_STORE_WINDOW_SECONDS = 300;
+    private static final int DEFAULT_STEAM_STORE_BURST = 10;
+    private static final String COORDINATOR_RUN_MODE = "coordinator";
+    // Only used when the Steam Store rate limit is disabled, as shards are otherwise sized from it.
+    private static final int DEFAULT_SHARD_SIZE = 250;
+    // Leaves a worker a third of the 15 minute lambda timeout for slow requests and writes.
+    private static final int SHARD_TARGET_SECONDS = 600;
+    private static final int DEFAULT_WORKER_CONCURRENCY = 1;
+    // Only bundled by the 'async-dynamodb' build profile.
+    private static final String NETTY_HTTP_CLIENT_CLASS_NAME =
+            "software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient";
+
+    private final String gameTableName = System.getenv().getOrDefault("GAME_TABLE_NAME", DEFAULT_GAME_TABLE_NAME);
+    private final String checkpointTableName = System.getenv().getOrDefault("CHECKPOINT_TABLE_NAME",
+            DEFAULT_CHECKPOINT_TABLE_NAME);
+    // Null if app details are only cached in memory.
+    private final String appDetailsCacheTableName = System.getenv("APP_DETAILS_CACHE_TABLE_NAME");
+    private final int scanSegments = EnvironmentUtils.getIntOrDefault("SCAN_SEGMENTS", DEFAULT_SCAN_SEGMENTS);
+    private final int batchWriteMaxAttempts = EnvironmentUtils.getIntOrDefault("BATCH_WRITE_MAX_ATTEMPTS",
+            DynamoDbBatchWriter.DEFAULT_MAX_ATTEMPTS);
+    private final int batchGetMaxAttempts = EnvironmentUtils.getIntOrDefault("BATCH_GET_MAX_ATTEMPTS",
+            DynamoDbBatchWriter.DEFAULT_MAX_ATTEMPTS);
+    private final boolean appIdKeys = EnvironmentUtils.getBooleanOrDefault("APPID_KEYS", false);
+    private final boolean appIdIndex = EnvironmentUtils.getBooleanOrDefault("PERSISTED_APP_ID_INDEX", false);
+    // The rate limit applies to the account, but each container has its own bucket, so the limit is split between
+    // the workers which may run concurrently.
+    private final boolean rateLimiting = EnvironmentUtils.getBooleanOrDefault("STEAM_STORE_RATE_LIMITING", true);
+    private final int workerConcurrency = Math.max(1, EnvironmentUtils.getIntOrDefault("WORKER_CONCURRENCY",
+            DEFAULT_WORKER_CONCURRENCY));
+    private final int steamStoreBurst = Math.max(1, EnvironmentUtils.getIntOrDefault("STEAM_STORE_BURST",
+            DEFAULT_STEAM_STORE_BURST) / workerConcurrency);
+    private final int steamStoreRequestsPerWindow = Math.max(1, EnvironmentUtils.getIntOrDefault(
+            "STEAM_STORE_REQUESTS_PER_WINDOW", DEFAULT_STEAM_STORE_REQUESTS_PER_WINDOW) / workerConcurrency);
+    private final Duration steamStoreWindow = Duration.ofSeconds(EnvironmentUtils.getIntOrDefault(
+            "STEAM_STORE_WINDOW_SECONDS", DEFAULT_STEAM_STORE_WINDOW_SECONDS));
+
+    /**
+     * Creates the clients and services used by the lambda, using the asynchronous DynamoDB client if
+     * 'ASYNC_DYNAMODB' is true and the Netty HTTP client it is backed by is bundled.
+     *
+     * @return the clients and services used by the lambda.
+     */
+    public UpdateGameCollectionDependencies create() {
+        if (appIdIndex && !appIdKeys) {
+            // Games missing from the index must be looked up by appid, so the index cannot be used without it.
+            log.warn("Ignoring 'PERSISTED_APP_ID_INDEX' as it requires 'APPID_KEYS' to be true.");
+        }
+        boolean asyncDynamoDb = EnvironmentUtils.getBooleanOrDefault("ASYNC_DYNAMODB", false);
+        if (asyncDynamoDb && !ClassUtils.isPresent(NETTY_HTTP_CLIENT_CLASS_NAME)) {
+            log.warn("Ignoring 'ASYNC_DYNAMODB' as the Netty HTTP client is not bundled, build with the "
+                    + "'async-dynamodb' profile to use it.");
+            asyncDynamoDb = false;
+        }
+        DynamoDbResources dynamoDb = asyncDynamoDb ? createAsyncDynamoDbResources() : createDynamoDbResources();
+        MetricsRegistry metrics = new MetricsRegistry();
+        AppDetailsCache appDetailsCache = createAppDetailsCache(dynamoDb);
+        int resolutionParallelism = EnvironmentUtils.getIntOrDefault("RESOLUTION_PARALLELISM",
+                DEFAULT_RESOLUTION_PARALLELISM);
+        // The time allowed for each request to the Steam Store, not counting any time waiting on its rate limit.
+        Duration appDetailsTimeout = Duration.ofSeconds(EnvironmentUtils.getIntOrDefault(
+                "APP_DETAILS_TIMEOUT_SECONDS", DEFAULT_APP_DETAILS_TIMEOUT_SECONDS));
+        Duration lookupTimeout = appDetailsTimeout;
+        SecretRetriever secretRetriever = createSecretRetriever();
+        CloseableHttpClient httpClient = createHttpClient(resolutionParallelism);
+        SteamRequestSender steamRequestSender;
+        if (rateLimiting) {
+            Duration maxRateLimitWait = Duration.ofSeconds(EnvironmentUtils.getIntOrDefault(
+                    "STEAM_STORE_MAX_WAIT_SECONDS",
+                    (int) RateLimitedSteamRequestSender.DEFAULT_MAX_RATE_LIMIT_WAIT.toSeconds()));
+            int maxAttempts = EnvironmentUtils.getIntOrDefault("STEAM_STORE_MAX_ATTEMPTS",
+                    RateLimitedSteamRequestSender.DEFAULT_MAX_ATTEMPTS);
+            // The sender bounds the rate limit wait across all attempts and the request timeout bounds each attempt,
+            // so a lookup only times out if a request stalls.
+            lookupTimeout = maxRateLimitWait.plus(appDetailsTimeout.multipliedBy(maxAttempts));
+            steamRequestSender = new RateLimitedSteamRequestSender(secretRetriever, httpClient, appDetailsTimeout,
+                    new TokenBucket(steamStoreBurst, steamStoreRequestsPerWindow, steamStoreWindow),
+                    new AdaptiveConcurrencyLimiter(1, 1, resolutionParallelism), maxRateLimitWait, maxAttempts,
+                    RateLimitedSteamRequestSender.DEFAULT_BASE_BACKOFF,
+                    RateLimitedSteamRequestSender.DEFAULT_MAX_BACKOFF, metrics);
+        } else {
+            steamRequestSender = new SteamRequestSender(secretRetriever, httpClient, appDetailsTimeout, metrics);
+        }
+        GameService gameService = new GameService(steamRequestSender, appDetailsCache);
+
+        return UpdateGameCollectionDependencies.builder()
+                .gameTable(dynamoDb.gameTable)
+                .batchWriter(dynamoDb.batchWriter)
+                .persistedAppIdsScan(dynamoDb.persistedAppIdsScan)
+                .gameTableScan(dynamoDb.gameTableScan)
+                .appIdKeys(appIdKeys)
+                .batchReader(dynamoDb.batchReader)
+                .appIdIndexStore(dynamoDb.appIdIndexStore)
+                .checkpointStore(dynamoDb.checkpointStore)
+                .appDetailsCache(appDetailsCache)
+                .gameService(gameService)
+                .multiplayerStatusResolver(new MultiplayerStatusResolver(gameService, resolutionParallelism,
+                        lookupTimeout))
+                .shardQueue(createShardQueue())
+                .shardSize(EnvironmentUtils.getIntOrDefault("SHARD_SIZE", getDefaultShardSize()))
+                .metrics(metrics)
+                .metricsPublisher(createMetricsPublisher())
+                .build();
+    }
+
+    /**
+     * Creates the DynamoDB resources used by the lambda with the synchronous client.
+     *
+     * @return the DynamoDB resources used by the lambda.
+     */
+    private DynamoDbResources createDynamoDbResources() {
+        log.debug("Creating DynamoDB client.");
+        DynamoDbEnhancedClient enhancedClient = new DynamoDbEnhancedClientFactory().createEnhancedClient();
+        DynamoDbTableScanner tableScanner = new DynamoDbTableScanner();
+        DynamoDbTable<Game> gameTable = enhancedClient.table(gameTableName, Game.TABLE_SCHEMA);
+        return DynamoDbResources.builder()
+                .gameTable(gameTable)
+                .persistedAppIdsScan(createPersistedAppIdsScan("scan", consumer -> tableScanner.scanProjected(
+                        gameTable, scanSegments, List.of(Game.APP_ID_ATTRIBUTE), consumer)))
+                .gameTableScan(tableName -> tableScanner.scanAll(enhancedClient.table(tableName, Game.TABLE_SCHEMA),
+                        scanSegments))
+                .batchReader(requiresBatchReader() ? new DynamoDbBatchReader(enhancedClient,
+                        EnvironmentUtils.getIntOrDefault("BATCH_GET_MAX_IN_FLIGHT",
+                                DynamoDbBatchReader.DEFAULT_MAX_IN_FLIGHT),
+                        batchGetMaxAttempts, DynamoDbBatchWriter.DEFAULT_BASE_BACKOFF,
+                        DynamoDbBatchWriter.DEFAULT_MAX_BACKOFF) : null)
+                .batchWriter(new DynamoDbBatchWriter(enhancedClient,
+                        EnvironmentUtils.getIntOrDefault("BATCH_WRITE_MAX_IN_FLIGHT",
+                                DynamoDbBatchWriter.DEFAULT_MAX_IN_FLIGHT),
+                        batchWriteMaxAttempts, DynamoDbBatchWriter.DEFAULT_BASE_BACKOFF,
+                        DynamoDbBatchWriter.DEFAULT_MAX_BACKOFF))
+                .checkpointStore(new DynamoDbCheckpointStore(enhancedClient.table(checkpointTableName,
+                        SyncCheckpoint.TABLE_SCHEMA)))
+                .appIdIndexStore(appIdKeys && appIdIndex ? new DynamoDbAppIdIndexStore(enhancedClient.table(
+                        checkpointTableName, PersistedAppIdIndex.TABLE_SCHEMA)) : null)
+                .appDetailsCacheTable(appDetailsCacheTableName == null ? null : enhancedClient.table(
+                        appDetailsCacheTableName, CachedAppDetails.TABLE_SCHEMA))
+                .build();
+    }
+
+    /**
+     * Creates the DynamoDB resources used by the lambda with the asynchronous client, which keeps many more requests
+     * in flight than there are threads.
+     *
+     * @return the DynamoDB resources used by the lambda.
+     */
+    private DynamoDbResources createAsyncDynamoDbResources() {
+        log.debug("Creating async DynamoDB client.");
+        int maxInFlight = EnvironmentUtils.getIntOrDefault("BATCH_WRITE_MAX_IN_FLIGHT",
+                DynamoDbAsyncBatchWriter.DEFAULT_MAX_IN_FLIGHT);
+        DynamoDbEnhancedAsyncClient enhancedClient = new DynamoDbEnhancedClientFactory()
+                .createEnhancedAsyncClient(maxInFlight);
+        DynamoDbTableScanner tableScanner = new DynamoDbTableScanner();
+        DynamoDbAsyncTable<Game> gameTable = enhancedClient.table(gameTableName, Game.TABLE_SCHEMA);
+        return DynamoDbResources.builder()
+                .gameTable(gameTable)
+                .persistedAppIdsScan(createPersistedAppIdsScan("async scan", consumer -> tableScanner.scanProjected(
+                        gameTable, scanSegments, List.of(Game.APP_ID_ATTRIBUTE), consumer)))
+                .gameTableScan(tableName -> tableScanner.scanAll(enhancedClient.table(tableName, Game.TABLE_SCHEMA),
+                        scanSegments))
+                .batchReader(requiresBatchReader() ? new DynamoDbAsyncBatchReader(enhancedClient,
+                        EnvironmentUtils.getIntOrDefault("BATCH_GET_MAX_IN_FLIGHT",
+                                DynamoDbAsyncBatchReader.DEFAULT_MAX_IN_FLIGHT),
+                        batchGetMaxAttempts, DynamoDbBatchWriter.DEFAULT_BASE_BACKOFF,
+                        DynamoDbBatchWriter.DEFAULT_MAX_BACKOFF) : null)
+                .batchWriter(new DynamoDbAsyncBatchWriter(enhancedClient, maxInFlight, batchWriteMaxAttempts,
+                        DynamoDbBatchWriter.DEFAULT_BASE_BACKOFF, DynamoDbBatchWriter.DEFAULT_MAX_BACKOFF))
+                .checkpointStore(new DynamoDbCheckpointStore(enhancedClient.table(checkpointTableName,
+                        SyncCheckpoint.TABLE_SCHEMA)))
+                .appIdIndexStore(appIdKeys && appIdIndex ? new DynamoDbAppIdIndexStore(enhancedClient.table(
+                        checkpointTableName, PersistedAppIdIndex.TABLE_SCHEMA)) : null)
+                .appDetailsCacheTable(appDetailsCacheTableName == null ? null : enhancedClient.table(
+                        appDetailsCacheTableName, CachedAppDetails.TABLE_SCHEMA))
+                .build();
+    }
+
+    /**
+     * @return true if games are looked up by appid or app details are cached in DynamoDB, both of which read items
+     * with batch gets.
+     */
+    private boolean requiresBatchReader() {
+        return appIdKeys || appDetailsCacheTableName != null;
+    }
+
+    /**
+     * Creates the scan of the appids of every persisted game.
+     *
+     * @param scanType      the type of scan, for logging.
+     * @param projectedScan a scan of the Game table retrieving only the appid of each game, passing each game to the
+     *                      consumer it is given.
+     * @return the scan, which may be run on every invocation that needs it.
+     */
+    private Supplier<AppIdSet> createPersistedAppIdsScan(String scanType, Consumer<Consumer<Game>> projectedScan) {
+        return () -> {
+            log.info("Retrieving appids of all persisted games via [{}] of [{}] segments.", scanType, scanSegments);
+            AppIdSet persistedAppIds = new AppIdSet();
+            projectedScan.accept(game -> persistedAppIds.add(game.getAppid()));
+            return persistedAppIds;
+        };
+    }
+
+    /**
+     * Creates the cache of app details, held in memory and, if 'APP_DETAILS_CACHE_TABLE_NAME' is set, in DynamoDB so
+     * that details survive between containers.
+     *
+     * @param dynamoDb the DynamoDB resources used by the lambda.
+     * @return the cache of app details.
+     */
+    private AppDetailsCache createAppDetailsCache(DynamoDbResources dynamoDb) {
+        Duration ttl = Duration.ofHours(EnvironmentUtils.getIntOrDefault("APP_DETAILS_CACHE_TTL_HOURS",
+                DEFAULT_APP_DETAILS_CACHE_TTL_HOURS));
+        // Held by the container's dependencies, so cached details survive between invocations of a warm container.
+        LruAppDetailsCache memoryCache = new LruAppDetailsCache(EnvironmentUtils.getIntOrDefault(
+                "APP_DETAILS_CACHE_CAPACITY", DEFAULT_APP_DETAILS_CACHE_CAPACITY), ttl);
+        if (dynamoDb.appDetailsCacheTable == null) {
+            return memoryCache;
+        }
+        return new TieredAppDetailsCache(memoryCache, new DynamoDbAppDetailsCache(dynamoDb.appDetailsCacheTable,
+                dynamoDb.batchReader, dynamoDb.batchWriter, ttl));
+    }
+
+    /**
+     * Creates the retriever of the Steam API key, which caches the key so that it is not retrieved on every
+     * invocation.
+     *
+     * @return the retriever of the Steam API key.
+     */
+    private SecretRetriever createSecretRetriever() {
+        return new CachingSecretRetriever(new AwsSecretRetriever(new AWSSecretsManagerClientFactory().createClient()),
+                Duration.ofMinutes(EnvironmentUtils.getIntOrDefault("SECRET_CACHE_TTL_MINUTES",
+                        (int) CachingSecretRetriever.DEFAULT_TTL.toMinutes())),
+                Duration.ofMinutes(EnvironmentUtils.getIntOrDefault("SECRET_REFRESH_AHEAD_MINUTES",
+                        (int) CachingSecretRetriever.DEFAULT_REFRESH_AHEAD.toMinutes())));
+    }
+
+    /**
+     * Creates the HTTP client used to communicate with the Steam API and Steam Store.
+     *
+     * @param resolutionParallelism the number of games whose multiplayer status is looked up at once.
+     * @return the HTTP client, with enough connections for every concurrent lookup.
+     */
+    private CloseableHttpClient createHttpClient(int resolutionParallelism) {
+        return new HttpClientFactory().createClient(
+                Math.max(resolutionParallelism, HttpClientFactory.DEFAULT_MAX_CONNECTIONS_PER_ROUTE),
+                Duration.ofSeconds(EnvironmentUtils.getIntOrDefault("HTTP_CONNECT_TIMEOUT_SECONDS",
+                        (int) HttpClientFactory.DEFAULT_CONNECT_TIMEOUT.toSeconds())),
+                Duration.ofSeconds(EnvironmentUtils.getIntOrDefault("HTTP_SOCKET_TIMEOUT_SECONDS",
+                        (int) HttpClientFactory.DEFAULT_SOCKET_TIMEOUT.toSeconds())),
+                Duration.ofSeconds(EnvironmentUtils.getIntOrDefault("HTTP_CONNECTION_REQUEST_TIMEOUT_SECONDS",
+                        (int) HttpClientFactory.DEFAULT_CONNECTION_REQUEST_TIMEOUT.toSeconds())),
+                HttpClientFactory.DEFAULT_KEEP_ALIVE);
+    }
+
+    /**
+     * @return as many games as a worker's share of the Steam Store rate limit allows it to look up in the target
+     * time, or a fixed size if the rate limit is disabled.
+     */
+    private int getDefaultShardSize() {
+        if (!rateLimiting) {
+            return DEFAULT_SHARD_SIZE;
+        }
+        return (int) Math.max(1, steamStoreBurst + (long) steamStoreRequestsPerWindow * SHARD_TARGET_SECONDS
+                / Math.max(1, steamStoreWindow.toSeconds()));
+    }
+
+    /**
+     * Creates the publisher of the metrics recorded during each invocation.
+     *
+     * @return a publisher writing to the namespace in 'METRICS_NAMESPACE', or null if 'METRICS_ENABLED' is false.
+     */
+    private EmfMetricsPublisher createMetricsPublisher() {
+        if (!EnvironmentUtils.getBooleanOrDefault("METRICS_ENABLED", true)) {
+            return null;
+        }
+        String functionName = System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+        return new EmfMetricsPublisher(System.getenv().getOrDefault("METRICS_NAMESPACE",
+                EmfMetricsPublisher.DEFAULT_NAMESPACE),
+                functionName == null ? Map.of() : Map.of("FunctionName", functionName));
+    }
+
+    /**
+     * Creates the queue used to hand shards of new games to workers when running as a coordinator.
+     *
+     * @return a queue backed by SQS if 'SHARD_QUEUE_URL' is set, otherwise an in-memory stand-in drained by the
+     * coordinator itself, or null if not running as a coordinator.
+     */
+    private ShardQueue createShardQueue() {
+        if (!COORDINATOR_RUN_MODE.equalsIgnoreCase(System.getenv("RUN_MODE"))) {
+            return null;
+        }
+        if (!appIdKeys) {
+            // Shards are redelivered until every game is saved, so only games keyed by appid can be rewritten.
+            log.warn("Ignoring 'RUN_MODE' as running as a coordinator requires 'APPID_KEYS' to be true.");
+            return null;
+        }
+        String shardQueueUrl = System.getenv("SHARD_QUEUE_URL");
+        if (shardQueueUrl == null || shardQueueUrl.isBlank()) {
+            log.warn("No shard queue configured, shards will be processed by the coordinator in memory.");
+            return new InMemoryShardQueue();
+        }
+        return new SqsShardQueue(new SqsClientFactory().createClient(), shardQueueUrl);
+    }
+
+    /**
+     * Represents the DynamoDB resources used by the lambda, which differ only in whether they are backed by the
+     * synchronous or asynchronous client.
+     */
+    @Builder
+    private static final class DynamoDbResources {
+        private final MappedTableResource<Game> gameTable;
+        private final BatchWriter batchWriter;
+        // Null unless games are keyed by appid or app details are cached in DynamoDB.
+        private final BatchReader batchReader;
+        private final Supplier<AppIdSet> persistedAppIdsScan;
+        private final Function<String, Set<Game>> gameTableScan;
+        private final DynamoDbCheckpointStore checkpointStore;
+        // Null unless games are keyed by appid and the persisted appid index is enabled.
+        private final DynamoDbAppIdIndexStore appIdIndexStore;
+        // Null unless app details are cached in DynamoDB.
+        private final MappedTableResource<CachedAppDetails> appDetailsCacheTable;
+    }
+}
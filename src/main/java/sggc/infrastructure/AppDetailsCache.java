@@ -0,0 +1,44 @@
+package sggc.infrastructure;
+
+import sggc.models.steam.GameData;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Represents a cache of the details of Steam apps, keyed by appid, used to avoid requesting the same details from the
+ * Steam Store again.
+ */
+public interface AppDetailsCache {
+
+    /**
+     * Retrieves the cached details of the provided apps.
+     *
+     * @param appIds the appids of the apps whose details should be retrieved.
+     * @return a map of appid to the details of that app. Apps with no fresh cached details are omitted.
+     */
+    Map<String, GameData> getAll(Collection<String> appIds);
+
+    /**
+     * Caches the details of apps, replacing any previously cached details of the same apps.
+     *
+     * @param appDetails a map of appid to the details of that app.
+     */
+    void putAll(Map<String, GameData> appDetails);
+
+    /**
+     * Makes sure every app's details passed to {@link #putAll(Map)} have been cached, for caches which buffer them.
+     */
+    default void flush() {
+    }
+
+    /**
+     * @return the number of apps whose details have been found in the cache.
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of apps whose details have been looked for in the cache but not found.
+     */
+    long getMissCount();
+}
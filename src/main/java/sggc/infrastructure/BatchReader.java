@@ -0,0 +1,24 @@
+package sggc.infrastructure;
+
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface for reading items in batch from a DynamoDB table by their keys.
+ */
+public interface BatchReader {
+
+    /**
+     * Retrieves the items with the provided keys from a DynamoDB table.
+     *
+     * @param keys  the keys of the items to retrieve.
+     * @param table the DynamoDB table to read from.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return the items found, in no particular order. Keys with no item, and any keys that remained unprocessed
+     * after the maximum number of attempts, have no item in the result.
+     */
+    <T> List<T> batchGet(Collection<Key> keys, MappedTableResource<T> table);
+}
@@ -0,0 +1,24 @@
+package sggc.infrastructure;
+
+import sggc.models.dynamodb.BatchWriteSummary;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.util.Collection;
+
+/**
+ * Interface for writing items in batch to a DynamoDB table.
+ */
+public interface BatchWriter {
+
+    /**
+     * Submits a collection of items to be written in batch to a DynamoDB table.
+     *
+     * @param itemType the type of the object to write.
+     * @param items    the objects to write.
+     * @param table    the DynamoDB table to write to.
+     * @param <T>      the type of object that will be written to the DynamoDB table.
+     * @return a summary of the batches written, including any items that remained unprocessed after the maximum
+     * number of attempts.
+     */
+    <T> BatchWriteSummary batchWrite(Class<T> itemType, Collection<T> items, MappedTableResource<T> table);
+}
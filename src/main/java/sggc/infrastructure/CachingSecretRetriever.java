@@ -0,0 +1,160 @@
+package sggc.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import sggc.exceptions.SecretRetrievalException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Represents an interface for retrieving secrets which caches each secret for a configurable time. Shortly before a
+ * cached secret expires it is refreshed in the background, so callers keep being served from the cache while the
+ * secret is retrieved again. When a secret must be retrieved, concurrent callers share a single retrieval rather
+ * than each making their own.
+ */
+@Slf4j
+public class CachingSecretRetriever implements SecretRetriever {
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(5);
+
+    private final SecretRetriever delegate;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedSecret>> secrets = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+
+    public CachingSecretRetriever(SecretRetriever delegate) {
+        this(delegate, DEFAULT_TTL, DEFAULT_REFRESH_AHEAD);
+    }
+
+    /**
+     * @param delegate     the retriever used to retrieve secrets that are not cached.
+     * @param ttl          how long a secret is cached for.
+     * @param refreshAhead how long before a cached secret expires to start refreshing it in the background.
+     */
+    public CachingSecretRetriever(SecretRetriever delegate, Duration ttl, Duration refreshAhead) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = Math.min(refreshAhead.toNanos(), ttlNanos);
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "secret-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retrieves a secret, from the cache if it holds an unexpired value for the secret.
+     *
+     * @param secretKey the key of the secret to retrieve.
+     * @return value of the secret with a matching key.
+     * @throws SecretRetrievalException if an exception is encountered when retrieving the secret.
+     */
+    @Override
+    public String getSecretValue(String secretKey) throws SecretRetrievalException {
+        long now = System.nanoTime();
+        CompletableFuture<CachedSecret> cached = secrets.get(secretKey);
+        if (isFresh(cached, now)) {
+            CachedSecret cachedSecret = cached.join();
+            if (now - cachedSecret.refreshAtNanos >= 0) {
+                refreshInBackground(secretKey);
+            }
+            return cachedSecret.value;
+        }
+
+        CompletableFuture<CachedSecret> retrieval = new CompletableFuture<>();
+        CompletableFuture<CachedSecret> current = secrets.compute(secretKey, (key, existing) ->
+                existing != null && (!existing.isDone() || isFresh(existing, now)) ? existing : retrieval);
+        if (current == retrieval) {
+            retrieve(secretKey, retrieval);
+        } else {
+            log.debug("Waiting on retrieval of secret [{}] already in progress.", secretKey);
+        }
+        try {
+            return current.join().value;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SecretRetrievalException) {
+                throw (SecretRetrievalException) e.getCause();
+            }
+            throw new SecretRetrievalException(secretKey, e.getCause());
+        }
+    }
+
+    /**
+     * Retrieves a secret from the delegate, completing the provided future with the result. The future is removed
+     * from the cache if the retrieval fails, so the next caller tries again.
+     *
+     * @param secretKey the key of the secret to retrieve.
+     * @param retrieval the future to complete with the retrieved secret.
+     */
+    private void retrieve(String secretKey, CompletableFuture<CachedSecret> retrieval) {
+        try {
+            String value = delegate.getSecretValue(secretKey);
+            if (value == null) {
+                secrets.remove(secretKey, retrieval);
+            }
+            retrieval.complete(new CachedSecret(value, System.nanoTime() + ttlNanos - refreshAheadNanos,
+                    System.nanoTime() + ttlNanos));
+        } catch (SecretRetrievalException | RuntimeException e) {
+            secrets.remove(secretKey, retrieval);
+            retrieval.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Retrieves a secret again on a background thread, replacing the cached value once retrieved. If the refresh
+     * fails the cached value continues to be used until it expires.
+     *
+     * @param secretKey the key of the secret to refresh.
+     */
+    private void refreshInBackground(String secretKey) {
+        if (!refreshing.add(secretKey)) {
+            return;
+        }
+        log.debug("Refreshing secret [{}] ahead of expiry.", secretKey);
+        refreshExecutor.execute(() -> {
+            try {
+                String value = delegate.getSecretValue(secretKey);
+                if (value != null) {
+                    secrets.put(secretKey, CompletableFuture.completedFuture(new CachedSecret(value,
+                            System.nanoTime() + ttlNanos - refreshAheadNanos, System.nanoTime() + ttlNanos)));
+                }
+            } catch (SecretRetrievalException | RuntimeException e) {
+                log.warn("Failed to refresh secret [{}], continuing to use the cached value.", secretKey, e);
+            } finally {
+                refreshing.remove(secretKey);
+            }
+        });
+    }
+
+    /**
+     * @param cached the cached retrieval of a secret, may be null.
+     * @param now    the current value of {@link System#nanoTime()}.
+     * @return whether the retrieval has completed successfully with a value that has not yet expired.
+     */
+    private static boolean isFresh(CompletableFuture<CachedSecret> cached, long now) {
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return false;
+        }
+        CachedSecret cachedSecret = cached.join();
+        return cachedSecret.value != null && now - cachedSecret.expiresAtNanos < 0;
+    }
+
+    /**
+     * Represents the cached value of a secret alongside when it should be refreshed and when it expires.
+     */
+    @RequiredArgsConstructor
+    private static class CachedSecret {
+        private final String value;
+        private final long refreshAtNanos;
+        private final long expiresAtNanos;
+    }
+}
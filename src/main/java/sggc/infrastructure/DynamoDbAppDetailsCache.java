@@ -0,0 +1,144 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.CachedAppDetails;
+import sggc.models.dynamodb.BatchWriteSummary;
+import sggc.models.steam.GameData;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a cache of the details of Steam apps held in an Amazon DynamoDB table, so details survive between runs.
+ * The table should have TTL enabled on the {@code expiresAt} attribute so stale details are eventually deleted.
+ * Details are read with batch gets, and cached details are buffered until there are enough to fill a batch write or
+ * the cache is flushed. The cache is only an optimisation, so a failure to read or write the table is logged and
+ * otherwise ignored.
+ */
+@Slf4j
+public class DynamoDbAppDetailsCache implements AppDetailsCache {
+
+    private final MappedTableResource<CachedAppDetails> table;
+    private final BatchReader batchReader;
+    private final BatchWriter batchWriter;
+    private final long ttlSeconds;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private List<CachedAppDetails> pendingWrites = new ArrayList<>();
+
+    /**
+     * @param table       the table holding the cached details.
+     * @param batchReader the reader used to read cached details from the table.
+     * @param batchWriter the writer used to write cached details to the table.
+     * @param ttl         how long cached details remain fresh for.
+     */
+    public DynamoDbAppDetailsCache(MappedTableResource<CachedAppDetails> table, BatchReader batchReader,
+                                   BatchWriter batchWriter, Duration ttl) {
+        this.table = table;
+        this.batchReader = batchReader;
+        this.batchWriter = batchWriter;
+        this.ttlSeconds = ttl.toSeconds();
+    }
+
+    @Override
+    public Map<String, GameData> getAll(Collection<String> appIds) {
+        if (appIds.isEmpty()) {
+            return Map.of();
+        }
+        long now = Instant.now().getEpochSecond();
+        Map<String, GameData> cached = new HashMap<>();
+        List<Key> keys = appIds.stream()
+                .map(appId -> Key.builder().partitionValue(appId).build())
+                .collect(Collectors.toList());
+        try {
+            for (CachedAppDetails cachedAppDetails : batchReader.batchGet(keys, table)) {
+                if (!cachedAppDetails.isExpired(now)) {
+                    cached.put(cachedAppDetails.getAppid(), cachedAppDetails.toGameData());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to read cached details of [{}] apps, treating as misses.", appIds.size(), e);
+        }
+        hits.addAndGet(cached.size());
+        misses.addAndGet(appIds.size() - cached.size());
+        return cached;
+    }
+
+    @Override
+    public void putAll(Map<String, GameData> appDetails) {
+        long now = Instant.now().getEpochSecond();
+        List<CachedAppDetails> batch = null;
+        synchronized (this) {
+            appDetails.forEach((appId, gameData) ->
+                    pendingWrites.add(CachedAppDetails.of(appId, gameData, now, ttlSeconds)));
+            if (pendingWrites.size() >= DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE) {
+                batch = takePendingWrites();
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Writes any cached details still buffered to the table.
+     */
+    @Override
+    public void flush() {
+        List<CachedAppDetails> batch;
+        synchronized (this) {
+            batch = takePendingWrites();
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Takes the buffered details, leaving the buffer empty. Must be called while holding the lock on the cache.
+     *
+     * @return the details that were buffered.
+     */
+    private List<CachedAppDetails> takePendingWrites() {
+        List<CachedAppDetails> batch = pendingWrites;
+        pendingWrites = new ArrayList<>();
+        return batch;
+    }
+
+    /**
+     * Writes cached details to the table.
+     *
+     * @param batch the details to write.
+     */
+    private void write(List<CachedAppDetails> batch) {
+        try {
+            BatchWriteSummary writeSummary = batchWriter.batchWrite(CachedAppDetails.class, batch, table);
+            if (writeSummary.getUnprocessedItemCount() > 0) {
+                log.warn("Failed to cache details of [{}] of [{}] apps.", writeSummary.getUnprocessedItemCount(),
+                        batch.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache details of [{}] apps.", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.AppIdSet;
+import sggc.models.PersistedAppIdIndex;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Represents a class which is used to load and update the {@link PersistedAppIdIndex} item in an Amazon DynamoDB
+ * table.
+ */
+@Slf4j
+public class DynamoDbAppIdIndexStore {
+
+    public static final String INDEX_ID = "PersistedAppIds";
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    // DynamoDB limits items to 400KB, including the names and values of the index's other attributes.
+    public static final int MAX_INDEX_BYTES = 390 * 1024;
+
+    private final Function<Key, PersistedAppIdIndex> loader;
+    private final Consumer<PersistedAppIdIndex> saver;
+    private final int maxAttempts;
+
+    public DynamoDbAppIdIndexStore(DynamoDbTable<PersistedAppIdIndex> table) {
+        this.loader = table::getItem;
+        this.saver = table::putItem;
+        this.maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    }
+
+    public DynamoDbAppIdIndexStore(DynamoDbAsyncTable<PersistedAppIdIndex> table) {
+        this.loader = key -> join(() -> table.getItem(key).join());
+        this.saver = index -> join(() -> table.putItem(index).join());
+        this.maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    }
+
+    /**
+     * Loads the index.
+     *
+     * @return the index, or null if none has been saved.
+     */
+    public PersistedAppIdIndex load() {
+        log.debug("Loading persisted appid index.");
+        return loader.apply(Key.builder().partitionValue(INDEX_ID).build());
+    }
+
+    /**
+     * Reads the appids held by an index.
+     *
+     * @param index the index to read.
+     * @return the appids, or null if the index holds no appids or they could not be read.
+     */
+    public AppIdSet readAppIds(PersistedAppIdIndex index) {
+        if (index == null || index.getAppids() == null) {
+            return null;
+        }
+        try {
+            return AppIdSet.fromCompressedBytes(index.getAppids().asByteArray());
+        } catch (IOException e) {
+            log.error("Could not read persisted appid index at version [{}], ignoring it.", index.getVersion(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies changes to the saved appids, creating the index if none has been saved. Should another writer save the
+     * index in the meantime, the changes are applied again to a fresh copy of the index, so no writer's changes are
+     * lost.
+     *
+     * @param changes the changes to apply, which may be applied more than once.
+     * @return true if the changes were saved, false if they were given up on.
+     */
+    public boolean update(Consumer<AppIdSet> changes) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            PersistedAppIdIndex index = load();
+            AppIdSet appIds = readAppIds(index);
+            if (index == null) {
+                index = new PersistedAppIdIndex();
+                index.setId(INDEX_ID);
+            }
+            if (appIds == null) {
+                appIds = new AppIdSet();
+            }
+            changes.accept(appIds);
+            byte[] appIdBytes = appIds.toCompressedBytes();
+            if (appIdBytes.length > MAX_INDEX_BYTES) {
+                log.error("Persisted appid index of [{}] bytes is too large to save.", appIdBytes.length);
+                return false;
+            }
+            index.setAppids(SdkBytes.fromByteArray(appIdBytes));
+            index.setAppidCount(appIds.size());
+            index.setUpdatedAt(Instant.now().toEpochMilli());
+            try {
+                saver.accept(index);
+                log.debug("Saved persisted appid index of [{}] appids in [{}] bytes.", appIds.size(),
+                        appIdBytes.length);
+                return true;
+            } catch (ConditionalCheckFailedException e) {
+                log.debug("Persisted appid index was saved by another writer, attempt [{}] of [{}].", attempt,
+                        maxAttempts);
+            }
+        }
+        log.error("Persisted appid index was saved by other writers on each of [{}] attempts, giving up.",
+                maxAttempts);
+        return false;
+    }
+
+    /**
+     * Runs a blocking call on an async table, unwrapping any exception the request failed with.
+     *
+     * @param call the call to run.
+     * @param <T>  the type returned by the call.
+     * @return the value returned by the call.
+     */
+    private static <T> T join(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.utils.CollectionUtils;
+import sggc.utils.ExponentialBackoff;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents a class which is used to perform batch reads from an Amazon DynamoDB instance without blocking a thread
+ * per request, allowing many batches to be in flight at once.
+ */
+@Slf4j
+public class DynamoDbAsyncBatchReader implements BatchReader {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private final DynamoDbEnhancedAsyncClient client;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    /**
+     * @param client      the client used to submit batch reads.
+     * @param maxInFlight the maximum number of batch read requests to have in flight at any one time.
+     * @param maxAttempts the maximum number of times a batch's keys will be submitted before any still unprocessed
+     *                    are given up on.
+     * @param baseBackoff the delay before the first retry of unprocessed keys, doubled on every subsequent retry.
+     * @param maxBackoff  the upper limit on the delay between retries.
+     */
+    public DynamoDbAsyncBatchReader(DynamoDbEnhancedAsyncClient client, int maxInFlight, int maxAttempts,
+                                    Duration baseBackoff, Duration maxBackoff) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Retrieves the items with the provided keys from a DynamoDB table. Keys are split into batches of 100 which are
+     * submitted asynchronously, with at most {@code maxInFlight} batches in flight at any one time. The calling
+     * thread blocks until every batch has completed.
+     *
+     * @param keys  the keys of the items to retrieve.
+     * @param table the DynamoDB table to read from.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return the items found, in no particular order. Keys with no item, and any keys that remained unprocessed
+     * after the maximum number of attempts, have no item in the result.
+     */
+    @Override
+    public <T> List<T> batchGet(Collection<Key> keys, MappedTableResource<T> table) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<List<T>>> batchReads = new ArrayList<>();
+        List<T> items = new ArrayList<>();
+        try {
+            for (List<Key> batchOfKeys : CollectionUtils.partition(keys, DynamoDbBatchReader.DYNAMODB_MAX_BATCH_SIZE)) {
+                inFlight.acquire();
+                batchReads.add(submitWithRetries(batchOfKeys, table, new ArrayList<>(), 1)
+                        .whenComplete((batchItems, ex) -> inFlight.release()));
+            }
+            batchReads.forEach(batchRead -> items.addAll(batchRead.join()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to submit batch read.", e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return items;
+    }
+
+    /**
+     * Submits a batch read and, if any keys are left unprocessed, schedules a resubmission of them after a backoff
+     * delay without blocking a thread while waiting.
+     *
+     * @param keys    the keys to submit.
+     * @param table   the DynamoDB table to read from.
+     * @param items   the items found by previous attempts, to which the items found by this attempt are added.
+     * @param attempt the number of this attempt, starting at 1.
+     * @param <T>     the type of object stored in the DynamoDB table.
+     * @return a future completed with every item found once the batch has been read or given up on.
+     */
+    private <T> CompletableFuture<List<T>> submitWithRetries(List<Key> keys, MappedTableResource<T> table,
+                                                             List<T> items, int attempt) {
+        return submitBatchGet(keys, table).thenCompose(page -> {
+            items.addAll(page.resultsForTable(table));
+            List<Key> unprocessedKeys = page.unprocessedKeysForTable(table);
+            if (unprocessedKeys.isEmpty()) {
+                return CompletableFuture.completedFuture(items);
+            }
+            if (attempt >= maxAttempts) {
+                log.error("[{}] keys remained unprocessed after [{}] attempts and will be treated as absent.",
+                        unprocessedKeys.size(), attempt);
+                return CompletableFuture.completedFuture(items);
+            }
+            log.debug("Retrying [{}] unprocessed keys, attempt [{}] of [{}].", unprocessedKeys.size(),
+                    attempt + 1, maxAttempts);
+            return CompletableFuture.supplyAsync(() -> unprocessedKeys,
+                            CompletableFuture.delayedExecutor(backoff.delayMillis(attempt), TimeUnit.MILLISECONDS))
+                    .thenCompose(retryKeys -> submitWithRetries(retryKeys, table, items, attempt + 1));
+        });
+    }
+
+    /**
+     * Submits a single batch read, taking only the first page of the result so that unprocessed keys are left to be
+     * retried with backoff rather than resubmitted immediately by the enhanced client.
+     *
+     * @param keys  the keys to read, no more than 100 due to limitations with DynamoDB.
+     * @param table the DynamoDB table to read from.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return a future completed with the first page of the result.
+     */
+    private <T> CompletableFuture<BatchGetResultPage> submitBatchGet(List<Key> keys, MappedTableResource<T> table) {
+        ReadBatch.Builder<T> readBatchBuilder = ReadBatch.builder(table.tableSchema().itemType().rawClass())
+                .mappedTableResource(table);
+        keys.forEach(readBatchBuilder::addGetItem);
+        AtomicReference<BatchGetResultPage> firstPage = new AtomicReference<>();
+        return client.batchGetItem(BatchGetItemEnhancedRequest.builder()
+                        .addReadBatch(readBatchBuilder.build())
+                        .build())
+                .limit(1)
+                .subscribe(firstPage::set)
+                .thenApply(ignored -> firstPage.get());
+    }
+}
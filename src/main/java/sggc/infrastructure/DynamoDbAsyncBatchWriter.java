@@ -0,0 +1,171 @@
+package sggc.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.dynamodb.BatchWriteSummary;
+import sggc.utils.CollectionUtils;
+import sggc.utils.ExponentialBackoff;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a class which is used to perform batch writes to an Amazon DynamoDB instance without blocking a thread
+ * per request, allowing many batches to be in flight at once.
+ */
+@Slf4j
+public class DynamoDbAsyncBatchWriter implements BatchWriter {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private final DynamoDbEnhancedAsyncClient client;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    /**
+     * @param client      the client used to submit batch writes.
+     * @param maxInFlight the maximum number of batch write requests to have in flight at any one time.
+     * @param maxAttempts the maximum number of times a batch's items will be submitted before any still unprocessed
+     *                    are given up on.
+     * @param baseBackoff the delay before the first retry of unprocessed items, doubled on every subsequent retry.
+     * @param maxBackoff  the upper limit on the delay between retries.
+     */
+    public DynamoDbAsyncBatchWriter(DynamoDbEnhancedAsyncClient client, int maxInFlight, int maxAttempts,
+                                    Duration baseBackoff, Duration maxBackoff) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Submits a list of Items to be written in batch to a DynamoDb table. Items are split into batches of 25 which are
+     * submitted asynchronously, with at most {@code maxInFlight} batches in flight at any one time. The calling thread
+     * blocks until every batch has completed.
+     *
+     * @param itemType the type of the object to write.
+     * @param items    the objects to write.
+     * @param table    the DynamoDB table to write to.
+     * @param <T>      the type of object that will be written to the DynamoDB table.
+     * @return a summary of the batches written, including any items that remained unprocessed after the maximum
+     * number of attempts.
+     */
+    @Override
+    public <T> BatchWriteSummary batchWrite(Class<T> itemType, Collection<T> items, MappedTableResource<T> table) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<CompletableFuture<BatchWriteSummary>> batchWrites = new ArrayList<>();
+        BatchWriteSummary summary = new BatchWriteSummary();
+        try {
+            for (List<T> batchOfItems : CollectionUtils.partition(items, DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE)) {
+                inFlight.acquire();
+                batchWrites.add(writeBatch(itemType, batchOfItems, table)
+                        .whenComplete((batchSummary, ex) -> inFlight.release()));
+            }
+            batchWrites.forEach(batchWrite -> summary.merge(batchWrite.join()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to submit batch write.", e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return summary;
+    }
+
+    /**
+     * Writes a single batch of items, resubmitting any unprocessed items with jittered exponential backoff until
+     * they are all written or the maximum number of attempts is reached.
+     *
+     * @param itemType the type of the object to write.
+     * @param items    the list of objects to write the size of the list should be no greater than 25 items due to
+     *                 limitations with DynamoDB.
+     * @param table    the DynamoDB table to write to.
+     * @param <T>      the type of object that will be written to the DynamoDB table.
+     * @return a future completed with a summary of the batch once it has been written or given up on.
+     */
+    private <T> CompletableFuture<BatchWriteSummary> writeBatch(Class<T> itemType, List<T> items,
+                                                                MappedTableResource<T> table) {
+        long start = System.nanoTime();
+        return submitWithRetries(itemType, items, table, 1).thenApply(outcome -> {
+            long latencyMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            if (outcome.unprocessedItems > 0) {
+                log.error("[{}] items remained unprocessed after [{}] attempts and will not be written.",
+                        outcome.unprocessedItems, outcome.attempts);
+            }
+            log.debug("Wrote batch of [{}] items in [{}]ms with [{}] retries.", items.size(), latencyMillis,
+                    outcome.attempts - 1);
+            BatchWriteSummary batchSummary = new BatchWriteSummary();
+            batchSummary.recordBatch(items.size(), outcome.attempts - 1, outcome.unprocessedItems, latencyMillis);
+            return batchSummary;
+        });
+    }
+
+    /**
+     * Submits a batch write and, if any items are left unprocessed, schedules a resubmission of them after a backoff
+     * delay without blocking a thread while waiting.
+     *
+     * @param itemType the type of the object to write.
+     * @param items    the items to submit.
+     * @param table    the DynamoDB table to write to.
+     * @param attempt  the number of this attempt, starting at 1.
+     * @param <T>      the type of object that will be written to the DynamoDB table.
+     * @return a future completed with the outcome of the final attempt.
+     */
+    private <T> CompletableFuture<BatchOutcome> submitWithRetries(Class<T> itemType, List<T> items,
+                                                                   MappedTableResource<T> table, int attempt) {
+        return submitBatchWrite(itemType, items, table).thenCompose(unprocessedItems -> {
+            if (unprocessedItems.isEmpty() || attempt >= maxAttempts) {
+                return CompletableFuture.completedFuture(new BatchOutcome(attempt, unprocessedItems.size()));
+            }
+            log.debug("Retrying [{}] unprocessed items, attempt [{}] of [{}].", unprocessedItems.size(),
+                    attempt + 1, maxAttempts);
+            return CompletableFuture.supplyAsync(() -> unprocessedItems,
+                            CompletableFuture.delayedExecutor(backoff.delayMillis(attempt), TimeUnit.MILLISECONDS))
+                    .thenCompose(retryItems -> submitWithRetries(itemType, retryItems, table, attempt + 1));
+        });
+    }
+
+    /**
+     * Method used to batch write a number of items to a DynamoDB table using an instance of the DynamoDB enhanced
+     * async client.
+     *
+     * @param itemType the type of the object to write.
+     * @param items    the list of objects to write the size of the list should be no greater than 25 items due to
+     *                 limitations with DynamoDB.
+     * @param table    the DynamoDB table to write to.
+     * @param <T>      the type of object that will be written to the DynamoDB table.
+     * @return a future completed with a list of objects of type T that couldn't be written to the DynamoDB table due
+     * to provisioning issues.
+     */
+    private <T> CompletableFuture<List<T>> submitBatchWrite(Class<T> itemType, List<T> items,
+                                                            MappedTableResource<T> table) {
+        WriteBatch.Builder<T> subBatchBuilder = WriteBatch.builder(itemType).mappedTableResource(table);
+        items.forEach(subBatchBuilder::addPutItem);
+        BatchWriteItemEnhancedRequest.Builder overallBatchBuilder = BatchWriteItemEnhancedRequest.builder();
+        overallBatchBuilder.addWriteBatch(subBatchBuilder.build());
+        return client.batchWriteItem(overallBatchBuilder.build())
+                .thenApply(result -> result.unprocessedPutItemsForTable(table));
+    }
+
+    /**
+     * Represents the outcome of the final attempt to write a batch.
+     */
+    @RequiredArgsConstructor
+    private static class BatchOutcome {
+        private final int attempts;
+        private final int unprocessedItems;
+    }
+}
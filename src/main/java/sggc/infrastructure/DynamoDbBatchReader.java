@@ -0,0 +1,144 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.utils.CollectionUtils;
+import sggc.utils.ExponentialBackoff;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Represents a class which is used to perform batch reads from an Amazon DynamoDB instance.
+ */
+@Slf4j
+public class DynamoDbBatchReader implements BatchReader {
+
+    //AWS limits the amount of keys in a batch to 100.
+    public static final int DYNAMODB_MAX_BATCH_SIZE = 100;
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+
+    private final DynamoDbEnhancedClient client;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    /**
+     * @param client      the client used to submit batch reads.
+     * @param maxInFlight the maximum number of batch read requests to have in flight at any one time.
+     * @param maxAttempts the maximum number of times a batch's keys will be submitted before any still unprocessed
+     *                    are given up on.
+     * @param baseBackoff the delay before the first retry of unprocessed keys, doubled on every subsequent retry.
+     * @param maxBackoff  the upper limit on the delay between retries.
+     */
+    public DynamoDbBatchReader(DynamoDbEnhancedClient client, int maxInFlight, int maxAttempts, Duration baseBackoff,
+                               Duration maxBackoff) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Retrieves the items with the provided keys from a DynamoDB table. Keys are split into batches of 100 which are
+     * read concurrently, with at most {@code maxInFlight} batches in flight at any one time.
+     *
+     * @param keys  the keys of the items to retrieve.
+     * @param table the DynamoDB table to read from.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return the items found, in no particular order. Keys with no item, and any keys that remained unprocessed
+     * after the maximum number of attempts, have no item in the result.
+     */
+    @Override
+    public <T> List<T> batchGet(Collection<Key> keys, MappedTableResource<T> table) {
+        List<List<Key>> partitions = CollectionUtils.partition(keys, DYNAMODB_MAX_BATCH_SIZE);
+        List<T> items = new ArrayList<>();
+        if (partitions.size() <= 1 || maxInFlight <= 1) {
+            partitions.forEach(batchOfKeys -> items.addAll(readBatch(batchOfKeys, table)));
+            return items;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxInFlight, partitions.size()));
+        try {
+            List<CompletableFuture<List<T>>> batchReads = new ArrayList<>(partitions.size());
+            for (List<Key> batchOfKeys : partitions) {
+                batchReads.add(CompletableFuture.supplyAsync(() -> readBatch(batchOfKeys, table), executor));
+            }
+            batchReads.forEach(batchRead -> items.addAll(batchRead.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+        return items;
+    }
+
+    /**
+     * Reads a single batch of keys, resubmitting any unprocessed keys with jittered exponential backoff until they
+     * are all read or the maximum number of attempts is reached.
+     *
+     * @param keys  the keys to read, no more than 100 due to limitations with DynamoDB.
+     * @param table the DynamoDB table to read from.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return the items found.
+     */
+    private <T> List<T> readBatch(List<Key> keys, MappedTableResource<T> table) {
+        BatchGetResultPage page = submitBatchGet(keys, table);
+        List<T> items = new ArrayList<>(page.resultsForTable(table));
+        List<Key> unprocessedKeys = page.unprocessedKeysForTable(table);
+        int attempts = 1;
+        while (!unprocessedKeys.isEmpty() && attempts < maxAttempts) {
+            try {
+                Thread.sleep(backoff.delayMillis(attempts));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            log.debug("Retrying [{}] unprocessed keys, attempt [{}] of [{}].", unprocessedKeys.size(),
+                    attempts + 1, maxAttempts);
+            page = submitBatchGet(unprocessedKeys, table);
+            items.addAll(page.resultsForTable(table));
+            unprocessedKeys = page.unprocessedKeysForTable(table);
+            attempts++;
+        }
+        if (!unprocessedKeys.isEmpty()) {
+            log.error("[{}] keys remained unprocessed after [{}] attempts and will be treated as absent.",
+                    unprocessedKeys.size(), attempts);
+        }
+        return items;
+    }
+
+    /**
+     * Submits a single batch read, returning only the first page of the result so that unprocessed keys are left to
+     * be retried with backoff rather than resubmitted immediately by the enhanced client.
+     *
+     * @param keys  the keys to read, no more than 100 due to limitations with DynamoDB.
+     * @param table the DynamoDB table to read from.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return the first page of the result.
+     */
+    private <T> BatchGetResultPage submitBatchGet(List<Key> keys, MappedTableResource<T> table) {
+        ReadBatch.Builder<T> readBatchBuilder = ReadBatch.builder(table.tableSchema().itemType().rawClass())
+                .mappedTableResource(table);
+        keys.forEach(readBatchBuilder::addGetItem);
+        return client.batchGetItem(BatchGetItemEnhancedRequest.builder()
+                        .addReadBatch(readBatchBuilder.build())
+                        .build())
+                .iterator().next();
+    }
+}
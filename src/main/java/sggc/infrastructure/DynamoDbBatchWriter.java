@@ -1,44 +1,176 @@
 package sggc.infrastructure;
 
-import com.google.common.collect.Iterables;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.dynamodb.BatchWriteSummary;
+import sggc.utils.CollectionUtils;
+import sggc.utils.ExponentialBackoff;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
 import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.RequestLimitExceededException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents a class which is used to perform batch writes an Amazon DynamoDB instance.
  */
-@RequiredArgsConstructor
-public class DynamoDbBatchWriter {
+@Slf4j
+public class DynamoDbBatchWriter implements BatchWriter {
 
     //AWS limits the amount of items in a batch to 25.
-    private static final int DYNAMODB_MAX_BATCH_SIZE = 25;
+    public static final int DYNAMODB_MAX_BATCH_SIZE = 25;
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofMillis(50);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
 
     private final DynamoDbEnhancedClient client;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    public DynamoDbBatchWriter(DynamoDbEnhancedClient client) {
+        this(client, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * @param client      the client used to submit batch writes.
+     * @param maxInFlight the maximum number of batch write requests to have in flight at any one time.
+     * @param maxAttempts the maximum number of times a batch's items will be submitted before any still unprocessed
+     *                    are given up on.
+     * @param baseBackoff the delay before the first retry of unprocessed items, doubled on every subsequent retry.
+     * @param maxBackoff  the upper limit on the delay between retries.
+     * @throws IllegalArgumentException if the maximum in flight or maximum attempts is less than 1, either backoff is
+     *                                  not positive, or the base backoff exceeds the maximum backoff.
+     */
+    public DynamoDbBatchWriter(DynamoDbEnhancedClient client, int maxInFlight, int maxAttempts, Duration baseBackoff,
+                               Duration maxBackoff) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(String.format("Max in flight must be at least 1, was [%d].",
+                    maxInFlight));
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException(String.format("Max attempts must be at least 1, was [%d].",
+                    maxAttempts));
+        }
+        if (baseBackoff.isNegative() || baseBackoff.isZero() || maxBackoff.isNegative() || maxBackoff.isZero()) {
+            throw new IllegalArgumentException(String.format("Backoff must be positive, was [%s] to [%s].",
+                    baseBackoff, maxBackoff));
+        }
+        if (baseBackoff.compareTo(maxBackoff) > 0) {
+            throw new IllegalArgumentException(String.format("Base backoff [%s] must not exceed max backoff [%s].",
+                    baseBackoff, maxBackoff));
+        }
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Submits a list of Items to be written in batch to a DynamoDb table. Items are split into batches of 25 which are
+     * written concurrently, with at most {@code maxInFlight} batches in flight at any one time. Should a batch fail
+     * with anything other than throttling, it and every batch not yet started are given up on and recorded as
+     * unprocessed, so that the caller still learns which of the items were written.
+     *
+     * @param itemType the type of the object to write.
+     * @param items    the objects to write.
+     * @param table    the DynamoDB table to write to.
+     * @param <T>      the type of object that will be written to the DynamoDB table.
+     * @return a summary of the batches written, including any items that remained unprocessed after the maximum
+     * number of attempts or were given up on after a failure.
+     */
+    @Override
+    public <T> BatchWriteSummary batchWrite(Class<T> itemType, Collection<T> items, MappedTableResource<T> table) {
+        List<List<T>> partitions = CollectionUtils.partition(items, DYNAMODB_MAX_BATCH_SIZE);
+        BatchWriteSummary summary = new BatchWriteSummary();
+        AtomicBoolean failed = new AtomicBoolean();
+        if (partitions.size() <= 1 || maxInFlight == 1) {
+            partitions.forEach(batchOfItems -> writeBatch(itemType, batchOfItems, table, summary, failed));
+            return summary;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxInFlight, partitions.size()));
+        try {
+            List<CompletableFuture<BatchWriteSummary>> batchWrites = new ArrayList<>(partitions.size());
+            for (List<T> batchOfItems : partitions) {
+                batchWrites.add(CompletableFuture.supplyAsync(() -> {
+                    BatchWriteSummary batchSummary = new BatchWriteSummary();
+                    writeBatch(itemType, batchOfItems, table, batchSummary, failed);
+                    return batchSummary;
+                }, executor));
+            }
+            batchWrites.forEach(batchWrite -> summary.merge(batchWrite.join()));
+        } finally {
+            executor.shutdownNow();
+        }
+        return summary;
+    }
 
     /**
-     * Submits a list of Items to be written in batch to a DynamoDb table.
+     * Writes a single batch of items, resubmitting any unprocessed or throttled items with jittered exponential
+     * backoff until they are all written or the maximum number of attempts is reached.
      *
      * @param itemType the type of the object to write.
      * @param items    the list of objects to write the size of the list should be no greater than 25 items due to
      *                 limitations with DynamoDB.
      * @param table    the DynamoDB table to write to.
+     * @param summary  the summary to record the outcome of the batch to.
+     * @param failed   set once any batch of the same write fails, after which the rest are recorded as unprocessed
+     *                 without being submitted.
      * @param <T>      the type of object that will be written to the DynamoDB table.
      */
-    public <T> void batchWrite(Class<T> itemType, Set<T> items, DynamoDbTable<T> table) {
-        Iterable<List<T>> partitions = Iterables.partition(items, DYNAMODB_MAX_BATCH_SIZE);
-        partitions.forEach(batchOfItems -> {
-            List<T> unprocessedItems = submitBatchWrite(itemType, batchOfItems, table);
-            while (!unprocessedItems.isEmpty()) {
-                // Catch any items that failed to be persisted due to provisioning issues.
-                unprocessedItems = submitBatchWrite(itemType, unprocessedItems, table);
+    private <T> void writeBatch(Class<T> itemType, List<T> items, MappedTableResource<T> table,
+                                BatchWriteSummary summary, AtomicBoolean failed) {
+        if (failed.get()) {
+            summary.recordBatch(items.size(), 0, items.size(), 0);
+            return;
+        }
+        long start = System.nanoTime();
+        List<T> unprocessedItems = items;
+        int attempts = 0;
+        try {
+            // Catch any items that failed to be persisted due to provisioning issues.
+            while (!unprocessedItems.isEmpty() && attempts < maxAttempts) {
+                if (attempts > 0) {
+                    Thread.sleep(backoff.delayMillis(attempts));
+                    log.debug("Retrying [{}] unprocessed items, attempt [{}] of [{}].", unprocessedItems.size(),
+                            attempts + 1, maxAttempts);
+                }
+                attempts++;
+                try {
+                    unprocessedItems = submitBatchWrite(itemType, unprocessedItems, table);
+                } catch (ProvisionedThroughputExceededException | RequestLimitExceededException e) {
+                    // A throttled request writes nothing, so every item is left to be retried.
+                    log.warn("Batch write of [{}] items throttled on attempt [{}] of [{}].", unprocessedItems.size(),
+                            attempts, maxAttempts);
+                }
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failed.set(true);
+            log.error("Error encountered when writing batch of [{}] items, giving up on it and any batches not yet "
+                    + "written.", unprocessedItems.size(), e);
+        }
+        long latencyMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        int retries = Math.max(attempts - 1, 0);
+        if (!unprocessedItems.isEmpty()) {
+            log.error("[{}] items remained unprocessed after [{}] attempts and will not be written.",
+                    unprocessedItems.size(), attempts);
+        }
+        log.debug("Wrote batch of [{}] items in [{}]ms with [{}] retries.", items.size(), latencyMillis, retries);
+        summary.recordBatch(items.size(), retries, unprocessedItems.size(), latencyMillis);
     }
 
     /**
@@ -51,7 +183,7 @@ public class DynamoDbBatchWriter {
      * @param <T>      the type of object that will be written to the DynamoDB table.
      * @return a list of objects of type T that couldn't be written to the DynamoDB table due to provisioning issues.
      */
-    private <T> List<T> submitBatchWrite(Class<T> itemType, List<T> items, DynamoDbTable<T> table) {
+    private <T> List<T> submitBatchWrite(Class<T> itemType, List<T> items, MappedTableResource<T> table) {
         WriteBatch.Builder<T> subBatchBuilder = WriteBatch.builder(itemType).mappedTableResource(table);
         items.forEach(subBatchBuilder::addPutItem);
         BatchWriteItemEnhancedRequest.Builder overallBatchBuilder = BatchWriteItemEnhancedRequest.builder();
@@ -0,0 +1,52 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.SyncCheckpoint;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Represents a class which is used to load and save {@link SyncCheckpoint} items in an Amazon DynamoDB table.
+ */
+@Slf4j
+public class DynamoDbCheckpointStore {
+
+    private final Function<Key, SyncCheckpoint> loader;
+    private final Consumer<SyncCheckpoint> saver;
+
+    public DynamoDbCheckpointStore(DynamoDbTable<SyncCheckpoint> table) {
+        this.loader = table::getItem;
+        this.saver = table::putItem;
+    }
+
+    public DynamoDbCheckpointStore(DynamoDbAsyncTable<SyncCheckpoint> table) {
+        this.loader = key -> table.getItem(key).join();
+        this.saver = checkpoint -> table.putItem(checkpoint).join();
+    }
+
+    /**
+     * Loads a checkpoint.
+     *
+     * @param checkpointId the id of the checkpoint to load.
+     * @return the checkpoint, or null if none has been saved.
+     */
+    public SyncCheckpoint load(String checkpointId) {
+        log.debug("Loading checkpoint [{}].", checkpointId);
+        return loader.apply(Key.builder().partitionValue(checkpointId).build());
+    }
+
+    /**
+     * Saves a checkpoint, replacing any existing checkpoint with the same id.
+     *
+     * @param checkpoint the checkpoint to save.
+     */
+    public void save(SyncCheckpoint checkpoint) {
+        log.debug("Saving checkpoint [{}] at appid [{}], reconciliation required: [{}].", checkpoint.getId(),
+                checkpoint.getLastAppid(), checkpoint.getRequiresReconciliation());
+        saver.accept(checkpoint);
+    }
+}
@@ -0,0 +1,186 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a class which is used to read every item from an Amazon DynamoDB table.
+ */
+@Slf4j
+public class DynamoDbTableScanner {
+
+    /**
+     * Retrieves every item from a DynamoDB table via a scan, blocking on each page.
+     *
+     * @param table the DynamoDB table to scan.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return a Set of every item in the table.
+     */
+    public <T> Set<T> scanAll(DynamoDbTable<T> table) {
+        return scanAll(table, 1);
+    }
+
+    /**
+     * Retrieves every item from a DynamoDB table via a parallel scan, with each segment of the table scanned by its
+     * own worker thread.
+     *
+     * @param table         the DynamoDB table to scan.
+     * @param totalSegments the number of segments to split the table into. A value of 1 or less performs a regular
+     *                      scan.
+     * @param <T>           the type of object stored in the DynamoDB table.
+     * @return a Set of every item in the table.
+     */
+    public <T> Set<T> scanAll(DynamoDbTable<T> table, int totalSegments) {
+        Set<T> items = totalSegments <= 1 ? new HashSet<>() : ConcurrentHashMap.newKeySet();
+        scanProjected(table, totalSegments, Collections.emptyList(), items::add);
+        return items;
+    }
+
+    /**
+     * Scans a DynamoDB table, retrieving only the specified attributes of each item. Only the projected attributes
+     * are returned over the network, so this is considerably cheaper than a full scan when only a few attributes are
+     * needed.
+     *
+     * @param table         the DynamoDB table to scan.
+     * @param totalSegments the number of segments to split the table into, each scanned by its own worker thread.
+     *                      A value of 1 or less performs a regular scan on the calling thread.
+     * @param attributes    the names of the attributes to retrieve, or an empty collection to retrieve every attribute.
+     * @param consumer      the consumer to receive each item, with only the projected attributes populated. When the
+     *                      table is split into multiple segments the consumer is invoked concurrently, so it must be
+     *                      thread-safe.
+     * @param <T>           the type of object stored in the DynamoDB table.
+     */
+    public <T> void scanProjected(DynamoDbTable<T> table, int totalSegments, Collection<String> attributes,
+                                  Consumer<T> consumer) {
+        if (totalSegments <= 1) {
+            table.scan(scanRequest(attributes).build()).items().forEach(consumer);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(totalSegments);
+        try {
+            CompletableFuture<?>[] segmentScans = IntStream.range(0, totalSegments)
+                    .mapToObj(segment -> CompletableFuture.runAsync(() -> {
+                        log.debug("Scanning segment [{}] of [{}].", segment + 1, totalSegments);
+                        table.scan(segmentRequest(attributes, segment, totalSegments)).items().forEach(consumer);
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(segmentScans).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Retrieves every item from a DynamoDB table via a scan, consuming pages as they are published rather than
+     * blocking a thread on each request.
+     *
+     * @param table the DynamoDB table to scan.
+     * @param <T>   the type of object stored in the DynamoDB table.
+     * @return a Set of every item in the table.
+     */
+    public <T> Set<T> scanAll(DynamoDbAsyncTable<T> table) {
+        return scanAll(table, 1);
+    }
+
+    /**
+     * Retrieves every item from a DynamoDB table via a parallel scan, with a subscription per segment of the table
+     * all in flight at once.
+     *
+     * @param table         the DynamoDB table to scan.
+     * @param totalSegments the number of segments to split the table into. A value of 1 or less performs a regular
+     *                      scan.
+     * @param <T>           the type of object stored in the DynamoDB table.
+     * @return a Set of every item in the table.
+     */
+    public <T> Set<T> scanAll(DynamoDbAsyncTable<T> table, int totalSegments) {
+        // Items of a single subscription are delivered one at a time, so only segmented scans need a concurrent set.
+        Set<T> items = totalSegments <= 1 ? new HashSet<>() : ConcurrentHashMap.newKeySet();
+        scanProjected(table, totalSegments, Collections.emptyList(), items::add);
+        return items;
+    }
+
+    /**
+     * Scans a DynamoDB table, retrieving only the specified attributes of each item, consuming pages as they are
+     * published rather than blocking a thread on each request.
+     *
+     * @param table         the DynamoDB table to scan.
+     * @param totalSegments the number of segments to split the table into, each with its own subscription. A value
+     *                      of 1 or less performs a regular scan.
+     * @param attributes    the names of the attributes to retrieve, or an empty collection to retrieve every attribute.
+     * @param consumer      the consumer to receive each item, with only the projected attributes populated. When the
+     *                      table is split into multiple segments the consumer is invoked concurrently, so it must be
+     *                      thread-safe.
+     * @param <T>           the type of object stored in the DynamoDB table.
+     */
+    public <T> void scanProjected(DynamoDbAsyncTable<T> table, int totalSegments, Collection<String> attributes,
+                                  Consumer<T> consumer) {
+        if (totalSegments <= 1) {
+            table.scan(scanRequest(attributes).build()).items().subscribe(consumer).join();
+            return;
+        }
+        CompletableFuture<?>[] segmentScans = IntStream.range(0, totalSegments)
+                .mapToObj(segment -> table.scan(segmentRequest(attributes, segment, totalSegments)).items()
+                        .subscribe(consumer))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(segmentScans).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Starts building a scan request which retrieves only the specified attributes.
+     *
+     * @param attributes the names of the attributes to retrieve, or an empty collection to retrieve every attribute.
+     * @return a builder for the scan request.
+     */
+    private ScanEnhancedRequest.Builder scanRequest(Collection<String> attributes) {
+        ScanEnhancedRequest.Builder requestBuilder = ScanEnhancedRequest.builder();
+        if (!attributes.isEmpty()) {
+            requestBuilder.attributesToProject(attributes);
+        }
+        return requestBuilder;
+    }
+
+    /**
+     * Builds a request to scan a single segment of a table.
+     *
+     * @param attributes    the names of the attributes to retrieve, or an empty collection to retrieve every attribute.
+     * @param segment       the zero-based index of the segment to scan.
+     * @param totalSegments the number of segments the table is split into.
+     * @return a scan request for the segment.
+     */
+    private ScanEnhancedRequest segmentRequest(Collection<String> attributes, int segment, int totalSegments) {
+        return scanRequest(attributes)
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .build();
+    }
+
+    /**
+     * Unwraps the exception thrown by a failed segment scan.
+     *
+     * @param e the exception thrown when waiting on the segment scans.
+     * @return the underlying runtime exception if there is one, otherwise the exception itself.
+     */
+    private RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+}
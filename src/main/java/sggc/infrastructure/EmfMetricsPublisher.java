@@ -0,0 +1,144 @@
+package sggc.infrastructure;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import sggc.utils.MetricsRegistry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Represents a publisher of metrics in CloudWatch's Embedded Metric Format. Metrics are written as JSON log lines,
+ * which CloudWatch extracts from the lambda's logs, so publishing them needs no requests to AWS.
+ */
+public class EmfMetricsPublisher {
+
+    public static final String DEFAULT_NAMESPACE = "SGGC";
+    // CloudWatch rejects documents holding more than 100 values for a single metric.
+    public static final int MAX_VALUES_PER_METRIC = 100;
+
+    private static final Gson GSON = new Gson();
+
+    private final String namespace;
+    private final Map<String, String> dimensions;
+    private final Consumer<String> output;
+
+    public EmfMetricsPublisher(String namespace, Map<String, String> dimensions) {
+        this(namespace, dimensions, System.out::println);
+    }
+
+    /**
+     * @param namespace  the CloudWatch namespace the metrics are published to.
+     * @param dimensions the dimensions every metric is published with, by name.
+     * @param output     the consumer to receive each log line. The lambda runtime only extracts metrics from lines
+     *                   holding nothing but the JSON document, so lines must not go through a log layout.
+     */
+    public EmfMetricsPublisher(String namespace, Map<String, String> dimensions, Consumer<String> output) {
+        this.namespace = namespace;
+        this.dimensions = new LinkedHashMap<>(dimensions);
+        this.output = output;
+    }
+
+    /**
+     * Writes every metric held by the registry as one or more log lines.
+     *
+     * @param registry the registry holding the metrics to publish.
+     */
+    public void publish(MetricsRegistry registry) {
+        format(registry, Instant.now()).forEach(output);
+    }
+
+    /**
+     * Formats every metric held by the registry as Embedded Metric Format documents. Counters are written as a single
+     * value in the first document. Distributions are written as arrays of their values, so that CloudWatch can take
+     * percentiles of them, spread across as many documents as are needed to keep within the limit on values per metric.
+     *
+     * @param registry  the registry holding the metrics to format.
+     * @param timestamp the time the metrics are published at.
+     * @return the documents, each serialized as a single line, or an empty list if the registry holds no metrics.
+     */
+    public List<String> format(MetricsRegistry registry, Instant timestamp) {
+        Map<String, List<Double>> distributionValues = new LinkedHashMap<>();
+        int largestDistribution = 0;
+        for (String name : registry.getDistributionNames()) {
+            List<Double> values = registry.getValues(name);
+            distributionValues.put(name, values);
+            largestDistribution = Math.max(largestDistribution, values.size());
+        }
+        int documentCount = (largestDistribution + MAX_VALUES_PER_METRIC - 1) / MAX_VALUES_PER_METRIC;
+        if (documentCount == 0 && !registry.getCounterNames().isEmpty()) {
+            documentCount = 1;
+        }
+
+        List<String> documents = new ArrayList<>();
+        for (int document = 0; document < documentCount; document++) {
+            JsonObject root = new JsonObject();
+            JsonArray metricDefinitions = new JsonArray();
+            if (document == 0) {
+                for (String name : registry.getCounterNames()) {
+                    metricDefinitions.add(metricDefinition(name, registry.getUnit(name)));
+                    root.addProperty(name, registry.getCount(name));
+                }
+            }
+            int from = document * MAX_VALUES_PER_METRIC;
+            for (Map.Entry<String, List<Double>> distribution : distributionValues.entrySet()) {
+                List<Double> values = distribution.getValue();
+                if (values.size() <= from) {
+                    continue;
+                }
+                JsonArray chunk = new JsonArray();
+                values.subList(from, Math.min(from + MAX_VALUES_PER_METRIC, values.size())).forEach(chunk::add);
+                metricDefinitions.add(metricDefinition(distribution.getKey(),
+                        registry.getUnit(distribution.getKey())));
+                root.add(distribution.getKey(), chunk);
+            }
+            dimensions.forEach(root::addProperty);
+            root.add("_aws", metadata(timestamp, metricDefinitions));
+            documents.add(GSON.toJson(root));
+        }
+        return documents;
+    }
+
+    /**
+     * Creates the metadata telling CloudWatch which fields of a document are metrics.
+     *
+     * @param timestamp         the time the metrics are published at.
+     * @param metricDefinitions the definitions of the metrics held by the document.
+     * @return the metadata, to be set as the document's '_aws' field.
+     */
+    private JsonObject metadata(Instant timestamp, JsonArray metricDefinitions) {
+        JsonArray dimensionSet = new JsonArray();
+        dimensions.keySet().forEach(dimensionSet::add);
+        JsonArray dimensionSets = new JsonArray();
+        dimensionSets.add(dimensionSet);
+
+        JsonObject directive = new JsonObject();
+        directive.addProperty("Namespace", namespace);
+        directive.add("Dimensions", dimensionSets);
+        directive.add("Metrics", metricDefinitions);
+        JsonArray directives = new JsonArray();
+        directives.add(directive);
+
+        JsonObject metadata = new JsonObject();
+        metadata.addProperty("Timestamp", timestamp.toEpochMilli());
+        metadata.add("CloudWatchMetrics", directives);
+        return metadata;
+    }
+
+    /**
+     * @param name the name of the metric.
+     * @param unit the unit of the metric.
+     * @return the definition of the metric, naming the document field holding it.
+     */
+    private JsonObject metricDefinition(String name, MetricsRegistry.Unit unit) {
+        JsonObject definition = new JsonObject();
+        definition.addProperty("Name", name);
+        definition.addProperty("Unit", unit.getCloudWatchName());
+        return definition;
+    }
+}
@@ -0,0 +1,37 @@
+package sggc.infrastructure;
+
+import sggc.models.GameShard;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Represents a shard queue held in memory, standing in for Amazon SQS when running locally or under test, where the
+ * shards are drained and processed in the same process.
+ */
+public class InMemoryShardQueue implements ShardQueue {
+
+    private final Queue<GameShard> shards = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void sendAll(List<GameShard> shards) {
+        this.shards.addAll(shards);
+    }
+
+    /**
+     * Removes the shard at the head of the queue.
+     *
+     * @return the shard at the head of the queue, or null if the queue is empty.
+     */
+    public GameShard poll() {
+        return shards.poll();
+    }
+
+    /**
+     * @return the number of shards in the queue.
+     */
+    public int size() {
+        return shards.size();
+    }
+}
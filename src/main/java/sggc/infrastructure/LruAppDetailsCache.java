@@ -0,0 +1,79 @@
+package sggc.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import sggc.models.steam.GameData;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents an in-memory cache of the details of Steam apps which holds a bounded number of apps, evicting the least
+ * recently used first. Held in a static field it survives between invocations of a warm lambda container.
+ */
+public class LruAppDetailsCache implements AppDetailsCache {
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of apps whose details are held.
+     * @param ttl      how long the details of an app are held for before they must be requested again.
+     */
+    public LruAppDetailsCache(int capacity, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Map<String, GameData> getAll(Collection<String> appIds) {
+        long now = System.nanoTime();
+        Map<String, GameData> cached = new HashMap<>();
+        for (String appId : appIds) {
+            Entry entry = entries.get(appId);
+            if (entry != null && now - entry.expiresAtNanos < 0) {
+                cached.put(appId, entry.gameData);
+            } else if (entry != null) {
+                entries.remove(appId);
+            }
+        }
+        hits.addAndGet(cached.size());
+        misses.addAndGet(appIds.size() - cached.size());
+        return cached;
+    }
+
+    @Override
+    public synchronized void putAll(Map<String, GameData> appDetails) {
+        long expiresAtNanos = System.nanoTime() + ttlNanos;
+        appDetails.forEach((appId, gameData) -> entries.put(appId, new Entry(gameData, expiresAtNanos)));
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Represents the cached details of an app alongside when they expire.
+     */
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final GameData gameData;
+        private final long expiresAtNanos;
+    }
+}
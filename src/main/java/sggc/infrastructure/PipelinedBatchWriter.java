@@ -0,0 +1,173 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.dynamodb.BatchWriteSummary;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Represents a writer which accepts items one at a time through a bounded queue and persists them to a DynamoDB table
+ * from a background thread, flushing each batch as soon as it is full. Producers are blocked while the queue is full,
+ * capping the number of items held in memory to the queue's capacity.
+ *
+ * @param <T> the type of object that will be written to the DynamoDB table.
+ */
+@Slf4j
+public class PipelinedBatchWriter<T> implements AutoCloseable {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final BatchWriter batchWriter;
+    private final Class<T> itemType;
+    private final MappedTableResource<T> table;
+
+    private final BlockingQueue<T> queue;
+    private final Thread writerThread;
+    private final AtomicInteger writtenCount = new AtomicInteger();
+    private final BatchWriteSummary summary = new BatchWriteSummary();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    // Held for reading while an item is submitted and for writing while closing, so an item is either queued before
+    // the writer closes or refused, never queued after the background writer has seen the queue empty and stopped.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    /**
+     * Creates and starts a new pipelined writer.
+     *
+     * @param batchWriter   the writer used to persist each batch.
+     * @param itemType      the type of the object to write.
+     * @param table         the DynamoDB table to write to.
+     * @param queueCapacity the maximum number of items that may be waiting to be written at any one time.
+     */
+    public PipelinedBatchWriter(BatchWriter batchWriter, Class<T> itemType, MappedTableResource<T> table,
+                                int queueCapacity) {
+        this.batchWriter = batchWriter;
+        this.itemType = itemType;
+        this.table = table;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::drainQueue, "pipelined-batch-writer");
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues an item to be written, blocking while the queue is full.
+     *
+     * @param item the item to write.
+     * @throws IllegalStateException if the writer has been closed, has failed, or the calling thread is interrupted
+     *                               while waiting for space in the queue.
+     */
+    public void submit(T item) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Cannot submit items to a closed writer.");
+            }
+            throwIfFailed();
+            while (!queue.offer(item, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                throwIfFailed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to queue item for writing.", e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of items that have been successfully written so far.
+     */
+    public int getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * @return a summary of the batches written so far. Only safe to read once the writer has been closed.
+     */
+    public BatchWriteSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Flushes any remaining queued items and waits for them to be written. Waits for any submission in progress to
+     * finish first, and no further items may be submitted once the writer is closed.
+     *
+     * @throws IllegalStateException if the background writer failed to persist a batch.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for queued items to be written.", e);
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Takes items from the queue until the writer is closed and the queue is empty, writing each full batch as soon
+     * as it is assembled and any partial batch once the queue is exhausted.
+     */
+    private void drainQueue() {
+        List<T> batch = new ArrayList<>(DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE);
+        try {
+            // Items are never submitted after closing, so an empty queue after closing means everything was taken.
+            while (!closed || !queue.isEmpty()) {
+                T item = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item != null) {
+                    batch.add(item);
+                    if (batch.size() == DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE) {
+                        flush(batch);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, new IllegalStateException("Pipelined batch writer was interrupted.", e));
+        } catch (RuntimeException e) {
+            log.error("Error encountered when writing batch of [{}] items, halting pipelined writes.", batch.size(), e);
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Writes the provided batch to the table and clears it.
+     *
+     * @param batch the batch of items to write.
+     */
+    private void flush(List<T> batch) {
+        BatchWriteSummary batchSummary = batchWriter.batchWrite(itemType, batch, table);
+        summary.merge(batchSummary);
+        int written = writtenCount.addAndGet(batch.size() - batchSummary.getUnprocessedItemCount());
+        log.debug("Flushed batch of [{}] items, [{}] items written so far.", batch.size(), written);
+        batch.clear();
+    }
+
+    /**
+     * @throws IllegalStateException if the background writer has failed.
+     */
+    private void throwIfFailed() {
+        RuntimeException cause = failure.get();
+        if (cause != null) {
+            throw new IllegalStateException("Pipelined batch writer failed.", cause);
+        }
+    }
+}
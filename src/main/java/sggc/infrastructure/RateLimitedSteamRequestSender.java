@@ -0,0 +1,146 @@
+package sggc.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import sggc.exceptions.ApiException;
+import sggc.exceptions.ThrottledException;
+import sggc.factories.HttpClientFactory;
+import sggc.models.steam.GameData;
+import sggc.utils.AdaptiveConcurrencyLimiter;
+import sggc.utils.ExponentialBackoff;
+import sggc.utils.MetricsRegistry;
+import sggc.utils.TokenBucket;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Represents an interface for communicating with the Steam API which keeps requests to the Steam Store within its rate
+ * limit. Requests are paced by a token bucket and their concurrency adapted to how often the store throttles them,
+ * and throttled requests are retried once the store's requested Retry-After delay, or else a backoff delay, has passed.
+ */
+@Slf4j
+public class RateLimitedSteamRequestSender extends SteamRequestSender {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(5);
+    // Long enough to sit out the longest backoff, but not a Retry-After which would outlast the lambda. Shared by every
+    // attempt of a request, so a request waits no longer than this in total.
+    public static final Duration DEFAULT_MAX_RATE_LIMIT_WAIT = DEFAULT_MAX_BACKOFF;
+
+    private final TokenBucket tokenBucket;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Duration maxRateLimitWait;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    public RateLimitedSteamRequestSender(SecretRetriever secretRetriever, TokenBucket tokenBucket,
+                                         AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this(secretRetriever, new HttpClientFactory().createClient(), DEFAULT_APP_DETAILS_TIMEOUT, tokenBucket,
+                concurrencyLimiter, DEFAULT_MAX_RATE_LIMIT_WAIT, DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF,
+                DEFAULT_MAX_BACKOFF, new MetricsRegistry());
+    }
+
+    /**
+     * @param secretRetriever    the retriever of the Steam API key.
+     * @param httpClient         the client used to send requests to the Steam API, shared by every request.
+     * @param appDetailsTimeout  the longest time each attempt waits for a pooled connection, to connect, and for data
+     *                           once connected.
+     * @param tokenBucket        the token bucket pacing requests to the Steam Store.
+     * @param concurrencyLimiter the limit on the number of requests to the Steam Store in flight at any one time.
+     * @param maxRateLimitWait   the longest time a request waits in total, across all of its attempts, for the rate
+     *                           limit to allow it, not counting the time the attempts themselves take.
+     * @param maxAttempts        the maximum number of times a request will be sent before a throttled response is
+     *                           given up on.
+     * @param baseBackoff        the delay before the first retry of a throttled request that came without a
+     *                           Retry-After header, doubled on every subsequent retry.
+     * @param maxBackoff         the upper limit on the delay between retries.
+     * @param metrics            the registry to record the size and latency of requests in.
+     */
+    public RateLimitedSteamRequestSender(SecretRetriever secretRetriever, CloseableHttpClient httpClient,
+                                         Duration appDetailsTimeout, TokenBucket tokenBucket,
+                                         AdaptiveConcurrencyLimiter concurrencyLimiter, Duration maxRateLimitWait,
+                                         int maxAttempts, Duration baseBackoff, Duration maxBackoff,
+                                         MetricsRegistry metrics) {
+        super(secretRetriever, httpClient, appDetailsTimeout, metrics);
+        this.tokenBucket = tokenBucket;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.maxRateLimitWait = maxRateLimitWait;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Retrieves the details of a specific game via the Steam Store's API, waiting for the rate limit to allow the
+     * request and retrying it if it is throttled.
+     *
+     * @param appId the appid of the game whose details are being requested.
+     * @return a GameData object parsed from the response from the Steam API containing the details of the specified app.
+     * @throws ThrottledException if the request was still throttled after the maximum number of attempts, or the rate
+     *                            limit did not allow an attempt before the request's maximum wait ran out.
+     * @throws ApiException       if an unexpected event is encountered when requesting the details from the Steam API.
+     * @throws IOException        if an exception occurs when parsing the response from the Steam API.
+     */
+    @Override
+    public GameData getAppDetails(String appId) throws ApiException, IOException {
+        long waitDeadline = System.nanoTime() + maxRateLimitWait.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            // The slot is taken first so that a token is only spent once the request can be sent straight away,
+            // rather than held while waiting behind other requests and wasted if the limit shrinks meanwhile.
+            long waitStart = System.nanoTime();
+            try {
+                if (!concurrencyLimiter.tryAcquire(Duration.ofNanos(waitDeadline - waitStart))) {
+                    throw rateLimitWaitExceeded(attempt);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("Interrupted while waiting for the Steam Store rate limit.", e);
+            }
+            try {
+                if (!tokenBucket.tryAcquire(Duration.ofNanos(waitDeadline - System.nanoTime()))) {
+                    concurrencyLimiter.abandon();
+                    throw rateLimitWaitExceeded(attempt);
+                }
+            } catch (InterruptedException e) {
+                concurrencyLimiter.abandon();
+                Thread.currentThread().interrupt();
+                throw new ApiException("Interrupted while waiting for the Steam Store rate limit.", e);
+            }
+            // The attempt itself is bounded by the app details timeout, so does not count against the wait.
+            long attemptStart = System.nanoTime();
+            boolean throttled = false;
+            try {
+                return super.getAppDetails(appId);
+            } catch (ThrottledException e) {
+                throttled = true;
+                if (attempt >= maxAttempts) {
+                    log.error("Get App Details request still throttled after [{}] attempts.", attempt);
+                    throw e;
+                }
+                Duration delay = e.getRetryAfter() != null ? e.getRetryAfter()
+                        : Duration.ofMillis(backoff.delayMillis(attempt));
+                log.warn("Get App Details request throttled, pausing requests for [{}]ms before attempt [{}] of [{}].",
+                        delay.toMillis(), attempt + 1, maxAttempts);
+                // The store limits by client rather than by request, so every request is held back, not just this one.
+                tokenBucket.pauseFor(delay);
+            } finally {
+                concurrencyLimiter.release(throttled);
+                waitDeadline += System.nanoTime() - attemptStart;
+            }
+        }
+    }
+
+    /**
+     * Creates the exception thrown when the rate limit did not allow a request within the maximum wait.
+     *
+     * @param attempt the attempt which was given up on.
+     * @return the exception to throw.
+     */
+    private ThrottledException rateLimitWaitExceeded(int attempt) {
+        log.error("Gave up on attempt [{}] of Get App Details request after waiting [{}]ms for the Steam Store rate "
+                + "limit.", attempt, maxRateLimitWait.toMillis());
+        return new ThrottledException(String.format("Steam Store rate limit did not allow the request within [%d]ms.",
+                maxRateLimitWait.toMillis()), null);
+    }
+}
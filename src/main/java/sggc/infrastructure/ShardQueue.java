@@ -0,0 +1,20 @@
+package sggc.infrastructure;
+
+import sggc.exceptions.ApiException;
+import sggc.models.GameShard;
+
+import java.util.List;
+
+/**
+ * Interface for handing shards of new games from the coordinator to the workers which resolve and persist them.
+ */
+public interface ShardQueue {
+
+    /**
+     * Sends shards to the queue, to each be received by a worker.
+     *
+     * @param shards the shards to send.
+     * @throws ApiException if any of the shards could not be sent.
+     */
+    void sendAll(List<GameShard> shards) throws ApiException;
+}
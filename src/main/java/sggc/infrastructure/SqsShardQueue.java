@@ -0,0 +1,165 @@
+package sggc.infrastructure;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+import sggc.exceptions.ApiException;
+import sggc.models.GameShard;
+import sggc.utils.ExponentialBackoff;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a shard queue backed by Amazon SQS, with each shard sent as a JSON message.
+ */
+@Slf4j
+public class SqsShardQueue implements ShardQueue {
+
+    //AWS limits a batch to 10 messages and 256KB across all of them.
+    public static final int SQS_MAX_BATCH_SIZE = 10;
+    public static final int SQS_MAX_BATCH_BYTES = 256 * 1024;
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofMillis(100);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private static final Gson GSON = new Gson();
+
+    private final SqsClient client;
+    private final String queueUrl;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    public SqsShardQueue(SqsClient client, String queueUrl) {
+        this(client, queueUrl, DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * @param client      the client used to send messages.
+     * @param queueUrl    the URL of the queue to send shards to.
+     * @param maxAttempts the maximum number of times a shard will be sent before it is given up on.
+     * @param baseBackoff the delay before the first resend of failed shards, doubled on every subsequent resend.
+     * @param maxBackoff  the upper limit on the delay between resends.
+     */
+    public SqsShardQueue(SqsClient client, String queueUrl, int maxAttempts, Duration baseBackoff,
+                         Duration maxBackoff) {
+        this.client = client;
+        this.queueUrl = queueUrl;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(baseBackoff, maxBackoff);
+    }
+
+    /**
+     * Sends shards to the queue in batches, resending any shards SQS failed to accept with jittered exponential
+     * backoff.
+     *
+     * @param shards the shards to send.
+     * @throws ApiException if any of the shards could not be sent within the maximum number of attempts.
+     */
+    @Override
+    public void sendAll(List<GameShard> shards) throws ApiException {
+        List<String> messageBodies = shards.stream().map(GSON::toJson).collect(Collectors.toList());
+        for (String messageBody : messageBodies) {
+            if (messageBody.getBytes(StandardCharsets.UTF_8).length > SQS_MAX_BATCH_BYTES) {
+                throw new ApiException("Shard is larger than the maximum SQS message size, reduce the shard size.");
+            }
+        }
+        List<SendMessageBatchRequestEntry> batch = new ArrayList<>(SQS_MAX_BATCH_SIZE);
+        int batchBytes = 0;
+        for (int i = 0; i < messageBodies.size(); i++) {
+            String messageBody = messageBodies.get(i);
+            int messageBytes = messageBody.getBytes(StandardCharsets.UTF_8).length;
+            if (batch.size() == SQS_MAX_BATCH_SIZE || batchBytes + messageBytes > SQS_MAX_BATCH_BYTES) {
+                sendBatch(batch);
+                batch = new ArrayList<>(SQS_MAX_BATCH_SIZE);
+                batchBytes = 0;
+            }
+            batch.add(SendMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .messageBody(messageBody)
+                    .build());
+            batchBytes += messageBytes;
+        }
+        if (!batch.isEmpty()) {
+            sendBatch(batch);
+        }
+        log.debug("Sent [{}] shards to [{}].", shards.size(), queueUrl);
+    }
+
+    /**
+     * Reads a shard from the body of a message received from the queue.
+     *
+     * @param messageBody the body of the message.
+     * @return the shard held by the message.
+     * @throws ApiException if the message does not hold a shard.
+     */
+    public static GameShard readShard(String messageBody) throws ApiException {
+        try {
+            GameShard shard = GSON.fromJson(messageBody, GameShard.class);
+            if (shard == null || shard.getGames() == null) {
+                throw new ApiException("Shard message contained no games.");
+            }
+            return shard;
+        } catch (JsonParseException e) {
+            throw new ApiException("Error when parsing shard message.", e);
+        }
+    }
+
+    /**
+     * Sends a single batch of shards, resending any failed entries until they are all accepted or the maximum number
+     * of attempts is reached.
+     *
+     * @param entries the entries to send, no more than 10 and 256KB in total.
+     * @throws ApiException if any of the entries could not be sent.
+     */
+    private void sendBatch(List<SendMessageBatchRequestEntry> entries) throws ApiException {
+        Map<String, SendMessageBatchRequestEntry> pending = new HashMap<>();
+        entries.forEach(entry -> pending.put(entry.id(), entry));
+        for (int attempt = 1; ; attempt++) {
+            List<BatchResultErrorEntry> failed;
+            try {
+                SendMessageBatchResponse response = client.sendMessageBatch(request -> request
+                        .queueUrl(queueUrl)
+                        .entries(pending.values()));
+                response.successful().forEach(entry -> pending.remove(entry.id()));
+                failed = response.failed();
+            } catch (SdkException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ApiException("Exception encountered when sending shards to SQS.", e);
+                }
+                failed = List.of();
+                log.warn("Sending [{}] shards failed, attempt [{}] of [{}].", pending.size(), attempt, maxAttempts);
+            }
+            for (BatchResultErrorEntry entry : failed) {
+                if (entry.senderFault()) {
+                    throw new ApiException(String.format("SQS rejected shard with code [%s]: %s.", entry.code(),
+                            entry.message()));
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt >= maxAttempts) {
+                throw new ApiException(String.format("[%d] shards could not be sent after [%d] attempts.",
+                        pending.size(), attempt));
+            }
+            try {
+                Thread.sleep(backoff.delayMillis(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("Interrupted while resending shards to SQS.", e);
+            }
+        }
+    }
+}
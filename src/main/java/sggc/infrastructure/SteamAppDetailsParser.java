@@ -0,0 +1,159 @@
+package sggc.infrastructure;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.steam.GameCategory;
+import sggc.models.steam.GameData;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a parser for responses from the Steam store's Get App Details endpoint. The response is read in a single
+ * pass, extracting only the success flag and the ids of the game's categories, without building a parse tree.
+ * Instances hold no state and are safe to share between threads.
+ */
+@Slf4j
+public class SteamAppDetailsParser {
+
+    private static final String SUCCESS_FIELD_KEY = "success";
+    private static final String DATA_FIELD_KEY = "data";
+    private static final String CATEGORIES_FIELD_KEY = "categories";
+    private static final String CATEGORY_ID_FIELD_KEY = "id";
+
+    private static final GameData ASSUMED_MULTIPLAYER_GAME_DATA =
+            new GameData(Collections.singleton(new GameCategory(GameCategory.SteamGameCategory.MULTIPLAYER)));
+
+    /**
+     * Parses the game details from a response from the Steam store's Get App Details endpoint.
+     *
+     * @param reader a reader over the response.
+     * @return a {@link GameData} object containing the categories of the game which are known to the application.
+     * @throws IOException if the response is not valid JSON or is not in the expected format.
+     */
+    public GameData parse(Reader reader) throws IOException {
+        try (JsonReader jsonReader = new JsonReader(reader)) {
+            return readResponse(jsonReader);
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Error when parsing Get App Details response.", e);
+        }
+    }
+
+    /**
+     * Reads the response, whose only field is keyed by the id of the game.
+     *
+     * @param reader the reader positioned at the start of the response.
+     * @return the parsed game details.
+     * @throws IOException if the response is not valid JSON.
+     */
+    private GameData readResponse(JsonReader reader) throws IOException {
+        reader.beginObject();
+        if (!reader.hasNext()) {
+            throw new IOException("Get App Details response contained no game.");
+        }
+        // The root of the response is an id of the game thus read the first value
+        reader.nextName();
+        boolean responseSuccess = false;
+        Set<GameCategory.SteamGameCategory> categories = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String fieldName = reader.nextName();
+            if (SUCCESS_FIELD_KEY.equals(fieldName)) {
+                responseSuccess = readBoolean(reader);
+            } else if (DATA_FIELD_KEY.equals(fieldName) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                categories = readCategoriesOfData(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        /*
+        Sometimes steam no longer has info on the Game Id e.g. 33910 ARMA II, this is probably because the devs of the games
+        in question may have created a new steam product for the exact same game (demo perhaps?), so to avoid crashing if the game no longer
+        has any details, we'll pass it through as a multiplayer game. Which is better than excluding games that could be multiplayer
+        */
+        if (!responseSuccess) {
+            log.debug("Could not determine whether game was multiplayer due to game data being removed from the Steam API." +
+                    " Will be treated as multiplayer.");
+            return ASSUMED_MULTIPLAYER_GAME_DATA;
+        }
+        if (categories == null) {
+            log.debug("Could not determine whether game was multiplayer due to game not possessing any categories. " +
+                    "Will be treated as multiplayer.");
+            return ASSUMED_MULTIPLAYER_GAME_DATA;
+        }
+        return new GameData(categories.stream().map(GameCategory::new).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Reads the categories from the data object of the response, skipping every other field.
+     *
+     * @param reader the reader positioned at the start of the data object.
+     * @return the categories known to the application, or null if the data contained no categories field.
+     * @throws IOException if the data is not valid JSON.
+     */
+    private Set<GameCategory.SteamGameCategory> readCategoriesOfData(JsonReader reader) throws IOException {
+        Set<GameCategory.SteamGameCategory> categories = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (CATEGORIES_FIELD_KEY.equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                categories = readCategories(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return categories;
+    }
+
+    /**
+     * Reads the ids of an array of categories, discarding their descriptions and any ids unknown to the application.
+     *
+     * @param reader the reader positioned at the start of the categories array.
+     * @return the categories known to the application.
+     * @throws IOException if the categories are not valid JSON.
+     */
+    private Set<GameCategory.SteamGameCategory> readCategories(JsonReader reader) throws IOException {
+        Set<GameCategory.SteamGameCategory> categories = EnumSet.noneOf(GameCategory.SteamGameCategory.class);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (CATEGORY_ID_FIELD_KEY.equals(reader.nextName()) && reader.peek() == JsonToken.NUMBER) {
+                    GameCategory.SteamGameCategory category = GameCategory.SteamGameCategory.fromId(reader.nextInt());
+                    if (category != null) {
+                        categories.add(category);
+                    }
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+        return categories;
+    }
+
+    /**
+     * Reads a boolean which may have been written either as a literal or as a string.
+     *
+     * @param reader the reader positioned at the boolean.
+     * @return the value of the boolean.
+     * @throws IOException if the value is not valid JSON.
+     */
+    private boolean readBoolean(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return false;
+        }
+        return Boolean.parseBoolean(reader.nextString());
+    }
+}
@@ -1,24 +1,40 @@
 package sggc.infrastructure;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import sggc.exceptions.ApiException;
 import sggc.exceptions.SecretRetrievalException;
-import sggc.models.steam.GameCategory;
+import sggc.exceptions.ThrottledException;
+import sggc.factories.HttpClientFactory;
 import sggc.models.steam.GameData;
 import sggc.models.steam.GetAppListResponse;
+import sggc.models.steam.GetStoreAppListResponse;
+import sggc.utils.CountingInputStream;
+import sggc.utils.MetricsRegistry;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Collections;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 
 /**
  * Represents an interface for communicating with the Steam API.
@@ -29,11 +45,34 @@ public class SteamRequestSender {
 
     public static final String STEAM_KEY_QUERY_PARAM_KEY = "key";
     public static final String STEAM_APP_IDS_QUERY_PARAM_KEY = "appids";
+    public static final String STEAM_FILTERS_QUERY_PARAM_KEY = "filters";
+    public static final String STEAM_CATEGORIES_FILTER = "categories";
+
+    public static final String APP_LIST_DOWNLOAD_TIME_METRIC = "AppListDownloadTime";
+    public static final String APP_LIST_DOWNLOAD_BYTES_METRIC = "AppListDownloadBytes";
+    public static final String APP_DETAILS_LATENCY_METRIC = "AppDetailsLatency";
+    public static final String APP_DETAILS_THROTTLED_METRIC = "AppDetailsThrottled";
+
+    public static final Duration DEFAULT_APP_DETAILS_TIMEOUT = Duration.ofSeconds(10);
+
+    // HttpStatus predates the 429 status code.
+    private static final int SC_TOO_MANY_REQUESTS = 429;
 
     public static final String STEAM_API_KEY_SECRET_ID = "SteamAPIKey";
 
     public static final String GET_APP_DETAILS_ENDPOINT = "/api/appdetails/";
     public static final String GET_APP_LIST_ENDPOINT = "/ISteamApps/GetAppList/v2/";
+    public static final String GET_STORE_APP_LIST_ENDPOINT = "/IStoreService/GetAppList/v1/";
+
+    public static final String STEAM_LAST_APP_ID_QUERY_PARAM_KEY = "last_appid";
+    public static final String STEAM_MAX_RESULTS_QUERY_PARAM_KEY = "max_results";
+    // The Store service only returns games unless other app types are requested, whereas GetAppList returns them all.
+    private static final String[] STEAM_STORE_APP_TYPE_QUERY_PARAM_KEYS = {"include_games", "include_dlc",
+            "include_software", "include_videos", "include_hardware"};
+
+    // Both are thread-safe, so are shared rather than created per request.
+    private static final Gson GSON = new Gson();
+    private static final SteamAppDetailsParser APP_DETAILS_PARSER = new SteamAppDetailsParser();
 
     private final SecretRetriever secretRetriever;
 
@@ -41,18 +80,51 @@ public class SteamRequestSender {
     private final String steamStoreAddress;
 
     private final CloseableHttpClient httpClient;
+    // Replaces the client's default config for app details requests, so must repeat any of its settings that matter.
+    private final RequestConfig appDetailsRequestConfig;
+    private final MetricsRegistry metrics;
 
     public SteamRequestSender(SecretRetriever secretRetriever) {
+        this(secretRetriever, new HttpClientFactory().createClient());
+    }
+
+    public SteamRequestSender(SecretRetriever secretRetriever, CloseableHttpClient httpClient) {
+        this(secretRetriever, httpClient, new MetricsRegistry());
+    }
+
+    public SteamRequestSender(SecretRetriever secretRetriever, CloseableHttpClient httpClient,
+                              MetricsRegistry metrics) {
+        this(secretRetriever, httpClient, DEFAULT_APP_DETAILS_TIMEOUT, metrics);
+    }
+
+    /**
+     * @param secretRetriever   the retriever of the Steam API key.
+     * @param httpClient        the client used to send requests to the Steam API, shared by every request.
+     * @param appDetailsTimeout the longest time each app details request waits for a pooled connection, to connect,
+     *                          and for data once connected.
+     * @param metrics           the registry to record the size and latency of requests in.
+     */
+    public SteamRequestSender(SecretRetriever secretRetriever, CloseableHttpClient httpClient,
+                              Duration appDetailsTimeout, MetricsRegistry metrics) {
         this.secretRetriever = secretRetriever;
 
         steamApiAddress = System.getenv("STEAM_API_ADDRESS");
         steamStoreAddress = System.getenv("STEAM_STORE_ADDRESS");
 
-        httpClient = HttpClients.createDefault();
+        this.httpClient = httpClient;
+        int appDetailsTimeoutMillis = (int) appDetailsTimeout.toMillis();
+        this.appDetailsRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(appDetailsTimeoutMillis)
+                .setConnectTimeout(appDetailsTimeoutMillis)
+                .setSocketTimeout(appDetailsTimeoutMillis)
+                .setContentCompressionEnabled(true)
+                .build();
+        this.metrics = metrics;
     }
 
     /**
-     * Retrieves a list of all games currently on Steam.
+     * Retrieves a list of all games currently on Steam, parsing the response as it is read into the columns of an
+     * {@link sggc.models.steam.Applist}, so that neither the whole response nor an object per game is held in memory.
      *
      * @return an object containing a list of all games, parsed from the response from the Steam API.
      * @throws IOException  if an exception occurs when parsing the response into from the Steam API.
@@ -68,151 +140,184 @@ public class SteamRequestSender {
         }
 
         HttpGet request = new HttpGet(requestUri);
-        String jsonResponse;
         log.debug("Contacting [{}] to get list of all games on Steam.", sanitizeRequestUri(requestUri));
 
+        long start = System.nanoTime();
+        GetAppListResponse appListResponse;
         try (CloseableHttpResponse response = httpClient.execute(request)) {
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                if (response.getEntity() != null && response.getEntity().getContent() != null) {
-                    jsonResponse = EntityUtils.toString(response.getEntity());
-                } else {
-                    throw new ApiException("Get App List response contained no response body.");
-                }
-            } else {
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
                 throw new ApiException("Get App List request responded with a non-200 status code.");
             }
+            if (response.getEntity() == null || response.getEntity().getContent() == null) {
+                throw new ApiException("Get App List response contained no response body.");
+            }
+            Charset charset = ContentType.getOrDefault(response.getEntity()).getCharset();
+            CountingInputStream content = new CountingInputStream(response.getEntity().getContent());
+            try (JsonReader reader = new JsonReader(new InputStreamReader(content,
+                    charset != null ? charset : StandardCharsets.UTF_8))) {
+                appListResponse = GSON.fromJson(reader, GetAppListResponse.class);
+            } catch (JsonParseException e) {
+                throw new IOException("Error when parsing Get App List response.", e);
+            }
+            // The response is parsed as it is read, so the time includes parsing.
+            recordAppListDownload(content.getCount(), start);
         } catch (IOException e) {
             throw new ApiException("Exception encountered when executing HTTP request.", e);
         }
 
-        Gson gson = new Gson();
-        return gson.fromJson(jsonResponse, GetAppListResponse.class);
+        return appListResponse;
     }
 
     /**
-     * Retrieves the details of a specific game's details via the Steam Store's API.
+     * Reads the body of a response listing games, recording its size and how long it took to download.
      *
-     * @param appId the appid of the game whose details are being requested.
-     * @return a GameData object parsed from the response from the Steam API containing the details of the specified app.
-     * @throws ApiException if an unexpected event is encountered when requesting the details from the Steam API.
-     * @throws IOException  if an exception occurs when parsing the response from the Steam API.
+     * @param entity the body of the response.
+     * @param start  the value of {@link System#nanoTime()} when the request was sent.
+     * @return the body, decoded with the charset of its content type, or UTF-8 if it has none.
+     * @throws IOException if the body could not be read.
      */
-    public GameData getAppDetails(String appId) throws ApiException, IOException {
+    private String readAppListBody(HttpEntity entity, long start) throws IOException {
+        byte[] body = EntityUtils.toByteArray(entity);
+        recordAppListDownload(body.length, start);
+        Charset charset = ContentType.getOrDefault(entity).getCharset();
+        return new String(body, charset != null ? charset : StandardCharsets.UTF_8);
+    }
 
+    /**
+     * Records the size of a response listing games and how long it took to download.
+     *
+     * @param bytes the size of the response body.
+     * @param start the value of {@link System#nanoTime()} when the request was sent.
+     */
+    private void recordAppListDownload(long bytes, long start) {
+        metrics.recordDuration(APP_LIST_DOWNLOAD_TIME_METRIC, Duration.ofNanos(System.nanoTime() - start));
+        metrics.count(APP_LIST_DOWNLOAD_BYTES_METRIC, bytes, MetricsRegistry.Unit.BYTES);
+    }
+
+    /**
+     * Retrieves a page of the games currently on Steam with an appid greater than the one provided, in appid order.
+     *
+     * @param lastAppId  the appid after which games should be returned.
+     * @param maxResults the maximum number of games to return in the page.
+     * @return an object containing the page of games, parsed from the response from the Steam API.
+     * @throws IOException  if an exception occurs when parsing the response into from the Steam API.
+     * @throws ApiException if an unexpected event is encountered when requesting the games from the Steam API
+     */
+    public GetStoreAppListResponse getStoreAppListPage(int lastAppId, int maxResults) throws IOException, ApiException {
         URI requestUri;
         try {
-            requestUri = steamStoreRequest(GET_APP_DETAILS_ENDPOINT)
-                    .addParameter(STEAM_APP_IDS_QUERY_PARAM_KEY, appId)
-                    .build();
-        } catch (URISyntaxException e) {
+            URIBuilder requestBuilder = steamApiRequest(GET_STORE_APP_LIST_ENDPOINT)
+                    .addParameter(STEAM_LAST_APP_ID_QUERY_PARAM_KEY, String.valueOf(lastAppId))
+                    .addParameter(STEAM_MAX_RESULTS_QUERY_PARAM_KEY, String.valueOf(maxResults));
+            for (String appTypeQueryParamKey : STEAM_STORE_APP_TYPE_QUERY_PARAM_KEYS) {
+                requestBuilder.addParameter(appTypeQueryParamKey, "true");
+            }
+            requestUri = requestBuilder.build();
+        } catch (URISyntaxException | SecretRetrievalException e) {
             throw new ApiException("Exception encountered when constructing request URI.", e);
         }
 
         HttpGet request = new HttpGet(requestUri);
         String jsonResponse;
-        log.debug("Contacting [{}] to get details of game [{}].", requestUri, appId);
+        log.debug("Contacting [{}] to get games on Steam after appid [{}].", sanitizeRequestUri(requestUri), lastAppId);
 
+        long start = System.nanoTime();
         try (CloseableHttpResponse response = httpClient.execute(request)) {
             if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
                 if (response.getEntity() != null && response.getEntity().getContent() != null) {
-                    jsonResponse = EntityUtils.toString(response.getEntity());
+                    jsonResponse = readAppListBody(response.getEntity(), start);
                 } else {
-                    throw new ApiException("Get App Details response contained no response body.");
+                    throw new ApiException("Get Store App List response contained no response body.");
                 }
             } else {
-                throw new ApiException("Get App Details response contained non-200 status code.");
+                throw new ApiException("Get Store App List request responded with a non-200 status code.");
             }
         } catch (IOException e) {
             throw new ApiException("Exception encountered when executing HTTP request.", e);
         }
 
-        return parseGameDetailsList(jsonResponse);
-    }
-
-    /**
-     * Parses the game details list from Steam GetAppDetails endpoint into a model object.
-     *
-     * @param stringToParse the string to parse.
-     * @return a {@link GameData} object serialized from the response from the Steam API.
-     * @throws IOException if an error occurs while serializing the string into JSON.
-     */
-    private GameData parseGameDetailsList(String stringToParse) throws IOException {
-        JsonObject rootObject = getAppDetailsResponseRootObject(stringToParse);
-        boolean responseSuccess = isAppDetailsResponseSuccessful(rootObject);
-        /*
-        Sometimes steam no longer has info on the Game Id e.g. 33910 ARMA II, this is probably because the devs of the games
-        in question may have created a new steam product for the exact same game (demo perhaps?), so to avoid crashing if the game no longer
-        has any details, we'll pass it through as a multiplayer game. Which is better than excluding games that could be multiplayer
-        */
-        if (!responseSuccess) {
-            log.debug("Could not determine whether game was multiplayer due to game data being removed from the Steam API." +
-                    " Will be treated as multiplayer.");
-            return new GameData(Collections.singleton(new GameCategory(GameCategory.SteamGameCategory.MULTIPLAYER)));
-        } else {
-            if (doesGameHaveCategories(rootObject)) {
-                log.debug("Could not determine whether game was multiplayer due to game not possessing any categories. " +
-                        "Will be treated as multiplayer.");
-                return new GameData(Collections.singleton(new GameCategory(GameCategory.SteamGameCategory.MULTIPLAYER)));
-            }
+        try {
+            return GSON.fromJson(jsonResponse, GetStoreAppListResponse.class);
+        } catch (JsonSyntaxException e) {
+            throw new IOException("Error when parsing response string into JSON object", e);
         }
-        String dataField = "data";
-        rootObject = rootObject.getAsJsonObject(dataField);
-        Gson gson = new Gson();
-        return gson.fromJson(rootObject.toString(), GameData.class);
     }
 
     /**
-     * Returns the 'root' object from the Steam store's Get App Details endpoint.
+     * Retrieves the details of a specific game's details via the Steam Store's API. Only the categories of the game
+     * are requested, as they are the only details used.
      *
-     * @param jsonString string representing the response from the endpoint.
-     * @return a Json object containing the details the Steam store contains on a game.
-     * @throws IOException if an error occurs while serializing the string into JSON.
+     * @param appId the appid of the game whose details are being requested.
+     * @return a GameData object parsed from the response from the Steam API containing the details of the specified app.
+     * @throws ThrottledException if the Steam Store rejected the request for exceeding its rate limit.
+     * @throws ApiException       if an unexpected event is encountered when requesting the details from the Steam API.
+     * @throws IOException        if an exception occurs when parsing the response from the Steam API.
      */
-    public JsonObject getAppDetailsResponseRootObject(String jsonString) throws IOException {
-        JsonElement jsonTree = parseResponseStringToJson(jsonString);
-        JsonObject obj = jsonTree.getAsJsonObject();
-        // The root of the response is an id of the game thus get the responses root value
-        String gameId = obj.keySet().iterator().next();
-        return obj.getAsJsonObject(gameId);
-    }
+    public GameData getAppDetails(String appId) throws ApiException, IOException {
+        URI requestUri;
+        try {
+            requestUri = steamStoreRequest(GET_APP_DETAILS_ENDPOINT)
+                    .addParameter(STEAM_APP_IDS_QUERY_PARAM_KEY, appId)
+                    .addParameter(STEAM_FILTERS_QUERY_PARAM_KEY, STEAM_CATEGORIES_FILTER)
+                    .build();
+        } catch (URISyntaxException e) {
+            throw new ApiException("Exception encountered when constructing request URI.", e);
+        }
 
-    /**
-     * Determines whether the response from the Steam store's Get App Details endpoint was successful.
-     *
-     * @param obj the response from the HTTP request deserialized into a {@link JsonObject} for easier parsing.
-     * @return a Json representation of the categories field in the response.
-     */
-    private boolean isAppDetailsResponseSuccessful(JsonObject obj) {
-        String successFieldKey = "success";
-        return Boolean.parseBoolean(obj.get(successFieldKey).toString());
-    }
+        HttpGet request = new HttpGet(requestUri);
+        request.setConfig(appDetailsRequestConfig);
+        log.debug("Contacting [{}] to get details of game [{}].", requestUri, appId);
 
-    /**
-     * Determines whether the Steam store's details for a game includes any categories.
-     *
-     * @param obj the response from the HTTP request deserialized into a {@link JsonObject} for easier parsing.
-     * @return a Json representation of the categories field in the response.
-     */
-    private boolean doesGameHaveCategories(JsonObject obj) {
-        String dataFieldKey = "data";
-        String gameCategoriesFieldKey = "categories";
-        JsonElement gameCategories = obj.get(dataFieldKey).getAsJsonObject().get(gameCategoriesFieldKey);
-        return gameCategories == null || gameCategories.toString().trim().isEmpty();
+        long start = System.nanoTime();
+        CloseableHttpResponse response;
+        try {
+            response = httpClient.execute(request);
+        } catch (IOException e) {
+            throw new ApiException("Exception encountered when executing HTTP request.", e);
+        }
+        try (response) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+                metrics.increment(APP_DETAILS_THROTTLED_METRIC);
+                throw new ThrottledException(String.format("Get App Details request was throttled with status code [%d].",
+                        statusCode), getRetryAfter(response));
+            }
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new ApiException("Get App Details response contained non-200 status code.");
+            }
+            if (response.getEntity() == null || response.getEntity().getContent() == null) {
+                throw new ApiException("Get App Details response contained no response body.");
+            }
+            return APP_DETAILS_PARSER.parse(new InputStreamReader(response.getEntity().getContent(),
+                    StandardCharsets.UTF_8));
+        } finally {
+            metrics.recordDuration(APP_DETAILS_LATENCY_METRIC, Duration.ofNanos(System.nanoTime() - start));
+        }
     }
 
     /**
-     * Parses a response string to JSON.
+     * Reads how long the server asked for requests to stop for from a response's Retry-After header, which may hold
+     * either a number of seconds or a date.
      *
-     * @param stringToParse the string to parse.
-     * @return JSON representation of the string.
-     * @throws IOException if an error occurs while serializing the string into JSON.
+     * @param response the response to read the header of.
+     * @return how long to wait before retrying, or null if the response has no valid Retry-After header.
      */
-    private JsonElement parseResponseStringToJson(String stringToParse) throws IOException {
+    private Duration getRetryAfter(HttpResponse response) {
+        Header retryAfterHeader = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (retryAfterHeader == null || retryAfterHeader.getValue() == null) {
+            return null;
+        }
+        String retryAfter = retryAfterHeader.getValue().trim();
         try {
-            return JsonParser.parseString(stringToParse);
-
-        } catch (JsonSyntaxException e) {
-            throw new IOException("Error when parsing response string into JSON object", e);
+            return Duration.ofSeconds(Math.max(Long.parseLong(retryAfter), 0));
+        } catch (NumberFormatException e) {
+            Date retryAt = DateUtils.parseDate(retryAfter);
+            if (retryAt == null) {
+                log.warn("Ignoring unparseable Retry-After header [{}].", retryAfter);
+                return null;
+            }
+            Duration untilRetry = Duration.between(Instant.now(), retryAt.toInstant());
+            return untilRetry.isNegative() ? Duration.ZERO : untilRetry;
         }
     }
 
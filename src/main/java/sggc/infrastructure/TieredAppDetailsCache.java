@@ -0,0 +1,66 @@
+package sggc.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import sggc.models.steam.GameData;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a cache of the details of Steam apps made of a fast near tier in front of a slower far tier. Details
+ * missing from the near tier are looked for in the far tier, and copied to the near tier when found there.
+ */
+@RequiredArgsConstructor
+public class TieredAppDetailsCache implements AppDetailsCache {
+
+    private final AppDetailsCache nearCache;
+    private final AppDetailsCache farCache;
+
+    @Override
+    public Map<String, GameData> getAll(Collection<String> appIds) {
+        Map<String, GameData> cached = new HashMap<>(nearCache.getAll(appIds));
+        if (cached.size() == appIds.size()) {
+            return cached;
+        }
+        List<String> nearMisses = appIds.stream()
+                .filter(appId -> !cached.containsKey(appId))
+                .collect(Collectors.toList());
+        Map<String, GameData> farHits = farCache.getAll(nearMisses);
+        if (!farHits.isEmpty()) {
+            nearCache.putAll(farHits);
+            cached.putAll(farHits);
+        }
+        return cached;
+    }
+
+    @Override
+    public void putAll(Map<String, GameData> appDetails) {
+        nearCache.putAll(appDetails);
+        farCache.putAll(appDetails);
+    }
+
+    @Override
+    public void flush() {
+        nearCache.flush();
+        farCache.flush();
+    }
+
+    /**
+     * @return the number of apps whose details have been found in either tier.
+     */
+    @Override
+    public long getHitCount() {
+        return nearCache.getHitCount() + farCache.getHitCount();
+    }
+
+    /**
+     * @return the number of apps whose details have been found in neither tier.
+     */
+    @Override
+    public long getMissCount() {
+        return farCache.getMissCount();
+    }
+}
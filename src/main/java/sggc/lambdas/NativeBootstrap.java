@@ -0,0 +1,108 @@
+package sggc.lambdas;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Entrypoint for running {@link UpdateGameCollectionLambda} on a custom Lambda runtime such as provided.al2, used by
+ * the native image build. Polls the Lambda Runtime API for invocations and reports the outcome of each.
+ */
+@Slf4j
+public final class NativeBootstrap {
+
+    private static final String RUNTIME_API_VERSION = "2018-06-01";
+    private static final String REQUEST_ID_HEADER = "Lambda-Runtime-Aws-Request-Id";
+    private static final String TRACE_ID_HEADER = "Lambda-Runtime-Trace-Id";
+    private static final String DEADLINE_HEADER = "Lambda-Runtime-Deadline-Ms";
+    private static final String TRACE_ID_PROPERTY = "com.amazonaws.xray.traceHeader";
+    private static final String EMPTY_RESPONSE = "{}";
+    private static final Gson GSON = new Gson();
+
+    private NativeBootstrap() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String runtimeUri = "http://" + System.getenv("AWS_LAMBDA_RUNTIME_API") + "/" + RUNTIME_API_VERSION
+                + "/runtime";
+        // Waiting for the next invocation is a long poll, so reads must never time out.
+        CloseableHttpClient runtimeClient = HttpClients.custom()
+                .setDefaultRequestConfig(RequestConfig.custom().setSocketTimeout(0).build())
+                .build();
+
+        UpdateGameCollectionLambda lambda;
+        try {
+            lambda = new UpdateGameCollectionLambda();
+        } catch (RuntimeException | ExceptionInInitializerError e) {
+            log.error("Failed to initialise lambda.", e);
+            postError(runtimeClient, runtimeUri + "/init/error", e);
+            System.exit(1);
+            return;
+        }
+
+        while (true) {
+            String requestId;
+            Instant deadline;
+            try (CloseableHttpResponse next = runtimeClient.execute(new HttpGet(runtimeUri + "/invocation/next"))) {
+                requestId = next.getFirstHeader(REQUEST_ID_HEADER).getValue();
+                deadline = Instant.ofEpochMilli(Long.parseLong(next.getFirstHeader(DEADLINE_HEADER).getValue()));
+                Header traceId = next.getFirstHeader(TRACE_ID_HEADER);
+                if (traceId != null) {
+                    System.setProperty(TRACE_ID_PROPERTY, traceId.getValue());
+                }
+                EntityUtils.consume(next.getEntity());
+            }
+            try {
+                lambda.handleRequestUntil(deadline);
+                post(runtimeClient, runtimeUri + "/invocation/" + requestId + "/response", EMPTY_RESPONSE);
+            } catch (RuntimeException e) {
+                log.error("Invocation [{}] failed.", requestId, e);
+                postError(runtimeClient, runtimeUri + "/invocation/" + requestId + "/error", e);
+            }
+        }
+    }
+
+    /**
+     * Reports an error to the Lambda Runtime API.
+     *
+     * @param runtimeClient the client used to communicate with the Runtime API.
+     * @param uri           the Runtime API endpoint to report the error to.
+     * @param error         the error to report.
+     * @throws IOException if the error could not be reported.
+     */
+    private static void postError(CloseableHttpClient runtimeClient, String uri, Throwable error) throws IOException {
+        JsonObject errorResponse = new JsonObject();
+        errorResponse.addProperty("errorMessage", String.valueOf(error.getMessage()));
+        errorResponse.addProperty("errorType", error.getClass().getName());
+        post(runtimeClient, uri, GSON.toJson(errorResponse));
+    }
+
+    /**
+     * Sends a JSON body to the Lambda Runtime API.
+     *
+     * @param runtimeClient the client used to communicate with the Runtime API.
+     * @param uri           the Runtime API endpoint to send the body to.
+     * @param body          the JSON body to send.
+     * @throws IOException if the body could not be sent.
+     */
+    private static void post(CloseableHttpClient runtimeClient, String uri, String body) throws IOException {
+        HttpPost request = new HttpPost(uri);
+        request.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        try (CloseableHttpResponse response = runtimeClient.execute(request)) {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+}
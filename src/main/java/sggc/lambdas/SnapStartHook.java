@@ -0,0 +1,43 @@
+package sggc.lambdas;
+
+import lombok.extern.slf4j.Slf4j;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+
+/**
+ * Represents a hook into the CRaC checkpoint/restore lifecycle used by Lambda SnapStart, which primes the lambda
+ * before the snapshot is taken and discards state that should not outlive a restore. The CRaC API is only bundled by
+ * the 'snapstart' build profile, so this class must not be loaded unless it is present.
+ */
+@Slf4j
+final class SnapStartHook implements Resource {
+
+    static final String CRAC_CORE_CLASS_NAME = "org.crac.Core";
+
+    // CRaC only holds weak references to registered resources, so the hook must be held here to stay registered.
+    private static final SnapStartHook INSTANCE = new SnapStartHook();
+
+    private SnapStartHook() {
+    }
+
+    /**
+     * Registers the hook with the global CRaC context.
+     */
+    static void register() {
+        Core.getGlobalContext().register(INSTANCE);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        log.info("Priming before snapshot.");
+        UpdateGameCollectionLambda.prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        // A snapshot may be restored long after it was taken, so any persisted appids held in it are stale.
+        UpdateGameCollectionLambda.discardPersistedAppIdSnapshot();
+        log.info("Restored from snapshot.");
+    }
+}
@@ -0,0 +1,59 @@
+package sggc.lambdas;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import sggc.infrastructure.AppDetailsCache;
+import sggc.infrastructure.BatchReader;
+import sggc.infrastructure.BatchWriter;
+import sggc.infrastructure.DynamoDbAppIdIndexStore;
+import sggc.infrastructure.DynamoDbCheckpointStore;
+import sggc.infrastructure.EmfMetricsPublisher;
+import sggc.infrastructure.ShardQueue;
+import sggc.models.AppIdSet;
+import sggc.models.Game;
+import sggc.models.PersistedAppIdSnapshot;
+import sggc.services.GameService;
+import sggc.services.MultiplayerStatusResolver;
+import sggc.utils.MetricsRegistry;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Represents the clients, services and state used by {@link UpdateGameCollectionLambda}. Created once per container
+ * by {@link sggc.factories.UpdateGameCollectionDependenciesFactory} and reused by every warm invocation, so warm
+ * invocations skip client construction and TLS handshakes.
+ */
+@Getter
+@Builder
+public class UpdateGameCollectionDependencies {
+
+    private final MappedTableResource<Game> gameTable;
+    private final BatchWriter batchWriter;
+    private final Supplier<AppIdSet> persistedAppIdsScan;
+    // Scans every game from the named table.
+    private final Function<String, Set<Game>> gameTableScan;
+    // Whether games are keyed by appid rather than a random id, so can be looked up and rewritten by appid.
+    private final boolean appIdKeys;
+    // Only set when games are keyed by appid or details are cached in DynamoDB.
+    private final BatchReader batchReader;
+    // Only set when games are keyed by appid and the persisted appid index is enabled.
+    private final DynamoDbAppIdIndexStore appIdIndexStore;
+    private final DynamoDbCheckpointStore checkpointStore;
+    private final AppDetailsCache appDetailsCache;
+    private final GameService gameService;
+    private final MultiplayerStatusResolver multiplayerStatusResolver;
+    // Only set when running as a coordinator, in which case new games are queued for workers.
+    private final ShardQueue shardQueue;
+    private final int shardSize;
+    // Shared by every invocation in the container, so is reset once each invocation's metrics are published.
+    private final MetricsRegistry metrics;
+    // Null if metrics are disabled, in which case they are still recorded but never published.
+    private final EmfMetricsPublisher metricsPublisher;
+    // The appids of every persisted game as of an earlier invocation, or null if there is none to reuse.
+    @Setter
+    private volatile PersistedAppIdSnapshot persistedAppIdSnapshot;
+}
@@ -1,22 +1,50 @@
 package sggc.lambdas;
 
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import lombok.extern.slf4j.Slf4j;
-import sggc.factories.AWSSecretsManagerClientFactory;
-import sggc.factories.DynamoDbEnhancedClientFactory;
-import sggc.infrastructure.AwsSecretRetriever;
-import sggc.infrastructure.DynamoDbBatchWriter;
+import sggc.exceptions.ApiException;
+import sggc.factories.UpdateGameCollectionDependenciesFactory;
+import sggc.infrastructure.AppDetailsCache;
+import sggc.infrastructure.BatchWriter;
+import sggc.infrastructure.DynamoDbCheckpointStore;
+import sggc.infrastructure.InMemoryShardQueue;
+import sggc.infrastructure.PipelinedBatchWriter;
+import sggc.infrastructure.SqsShardQueue;
+import sggc.infrastructure.SteamAppDetailsParser;
 import sggc.infrastructure.SteamRequestSender;
+import sggc.models.AppIdSet;
 import sggc.models.Game;
+import sggc.models.GameShard;
+import sggc.models.PersistedAppIdIndex;
+import sggc.models.PersistedAppIdSnapshot;
+import sggc.models.SyncCheckpoint;
+import sggc.models.dynamodb.BatchWriteSummary;
 import sggc.models.service.Result;
+import sggc.models.service.error.ErrorType;
 import sggc.services.GameService;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import sggc.services.MultiplayerStatusResolver;
+import sggc.utils.ClassUtils;
+import sggc.utils.EnvironmentUtils;
+import sggc.utils.MetricsRegistry;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -25,63 +53,802 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UpdateGameCollectionLambda {
 
-    private static final String GAME_TABLE_NAME = "Game";
+    private static final String CHECKPOINT_ID = "UpdateGameCollection";
+    private static final int DEFAULT_PIPELINE_QUEUE_CAPACITY = 500;
+    private static final int DEFAULT_PERSISTED_APP_ID_SNAPSHOT_MAX_AGE_MINUTES = 360;
+    private static final int DEFAULT_WRITE_TIME_RESERVE_SECONDS = 60;
+    private static final String INVOCATION_TIME_METRIC = "InvocationTime";
+    private static final String PERSISTED_APP_ID_SCAN_TIME_METRIC = "PersistedAppIdScanTime";
+    private static final String PERSISTED_APP_ID_SCAN_ITEMS_METRIC = "PersistedAppIdScanItems";
+    private static final String EXISTENCE_CHECK_TIME_METRIC = "ExistenceCheckTime";
+    private static final String EXISTENCE_CHECK_KEYS_METRIC = "ExistenceCheckKeys";
+    private static final String APP_ID_INDEX_LOAD_TIME_METRIC = "AppIdIndexLoadTime";
+    private static final String APP_ID_INDEX_BYTES_METRIC = "AppIdIndexBytes";
+    private static final String NEW_GAMES_METRIC = "NewGames";
+    private static final String GAMES_PERSISTED_METRIC = "GamesPersisted";
+    private static final String GAMES_DEFERRED_METRIC = "GamesDeferred";
+    private static final String GAMES_PER_SECOND_METRIC = "GamesPerSecond";
+    private static final String BATCH_WRITES_METRIC = "BatchWrites";
+    private static final String BATCH_WRITE_RETRIES_METRIC = "BatchWriteRetries";
+    private static final String BATCH_WRITE_UNPROCESSED_ITEMS_METRIC = "BatchWriteUnprocessedItems";
+    private static final String BATCH_WRITE_AVERAGE_LATENCY_METRIC = "BatchWriteAverageLatency";
+    private static final String BATCH_WRITE_MAX_LATENCY_METRIC = "BatchWriteMaxLatency";
+    // A minimal app details response, parsed when priming so the parser's classes are loaded ahead of invocations.
+    private static final String PRIMING_APP_DETAILS_RESPONSE =
+            "{\"0\":{\"success\":true,\"data\":{\"categories\":[{\"id\":1,\"description\":\"Multi-player\"}]}}}";
+
+    // Bounds how stale the snapshot can get should games be saved to the table by anything other than this lambda.
+    private static final Duration PERSISTED_APP_ID_SNAPSHOT_MAX_AGE = Duration.ofMinutes(EnvironmentUtils
+            .getIntOrDefault("PERSISTED_APP_ID_SNAPSHOT_MAX_AGE_MINUTES",
+                    DEFAULT_PERSISTED_APP_ID_SNAPSHOT_MAX_AGE_MINUTES));
+
+    // The time left at the end of an invocation for saving the games resolved and advancing the checkpoint.
+    private static final Duration WRITE_TIME_RESERVE = Duration.ofSeconds(EnvironmentUtils.getIntOrDefault(
+            "WRITE_TIME_RESERVE_SECONDS", DEFAULT_WRITE_TIME_RESERVE_SECONDS));
+
+    // Kept between invocations of a warm container.
+    private static UpdateGameCollectionDependencies containerDependencies;
+
+    static {
+        if (ClassUtils.isPresent(SnapStartHook.CRAC_CORE_CLASS_NAME)) {
+            SnapStartHook.register();
+        }
+        if (EnvironmentUtils.getBooleanOrDefault("PRIME_ON_INIT", false)) {
+            prime();
+        }
+    }
 
     /**
      * Entrypoint for the lambda function.
+     *
+     * @param context the context of the invocation, used to find how long the invocation has left to run.
      */
-    public void handleRequest() {
-        log.debug("Creating DynamoDB client.");
-        DynamoDbEnhancedClient enhancedClient = new DynamoDbEnhancedClientFactory().createEnhancedClient();
-        DynamoDbTable<Game> gameTable = enhancedClient.table(GAME_TABLE_NAME, TableSchema.fromBean(Game.class));
-        log.info("Retrieving all persisted games via scan.");
-        Set<Game> persistedGames = gameTable.scan().items().stream().collect(Collectors.toSet());
-        log.debug("Persisted games retrieved.");
+    public void handleRequest(Context context) {
+        handleRequestUntil(getInvocationDeadline(context));
+    }
 
-        AwsSecretRetriever secretRetriever = new AwsSecretRetriever(new AWSSecretsManagerClientFactory().createClient());
-        SteamRequestSender steamRequestSender = new SteamRequestSender(secretRetriever);
-        GameService gameService = new GameService(steamRequestSender);
+    /**
+     * Entrypoint for the lambda function when run without a Lambda {@link Context}, such as on a custom runtime.
+     *
+     * @param invocationDeadline the time at which the invocation will be stopped.
+     */
+    public void handleRequestUntil(Instant invocationDeadline) {
+        UpdateGameCollectionDependencies dependencies = getDependencies();
+        long start = System.nanoTime();
+        try {
+            updateGameCollection(dependencies, getResolutionDeadline(invocationDeadline));
+        } finally {
+            publishMetrics(dependencies, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Finds the games added to Steam since the collection was last updated, and either persists them along with their
+     * multiplayer status or, when running as a coordinator, queues them for workers to persist.
+     *
+     * @param dependencies       the clients and services used by the lambda.
+     * @param resolutionDeadline the time after which no further multiplayer status lookups are made, so that the
+     *                           games resolved can be saved before the invocation is stopped.
+     */
+    private void updateGameCollection(UpdateGameCollectionDependencies dependencies, Instant resolutionDeadline) {
+        MappedTableResource<Game> gameTable = dependencies.getGameTable();
+        BatchWriter batchWriter = dependencies.getBatchWriter();
+        DynamoDbCheckpointStore checkpointStore = dependencies.getCheckpointStore();
+        AppDetailsCache appDetailsCache = dependencies.getAppDetailsCache();
+        GameService gameService = dependencies.getGameService();
+        MultiplayerStatusResolver multiplayerStatusResolver = dependencies.getMultiplayerStatusResolver();
 
-        log.info("Retrieving all from Steam API.");
-        Result<Set<Game>> allSteamGamesResult = gameService.requestAllGamesFromSteam();
-        Set<Game> allSteamGames = null;
+        boolean incrementalSync = EnvironmentUtils.getBooleanOrDefault("INCREMENTAL_SYNC", false);
+        SyncCheckpoint checkpoint = incrementalSync ? checkpointStore.load(CHECKPOINT_ID) : null;
+        Set<Game> newGames;
+        int highestSyncedAppId;
+        // Persisted games found by looking them up or scanning, which the persisted appid index may not hold yet.
+        AppIdSet lookedUpAppIds = new AppIdSet();
 
-        if (allSteamGamesResult.isSuccess() && allSteamGamesResult.getData() != null) {
-            allSteamGames = allSteamGamesResult.getData();
+        if (checkpoint != null && checkpoint.getLastAppid() != null) {
+            log.info("Retrieving games added to Steam after checkpoint appid [{}].", checkpoint.getLastAppid());
+            Set<Game> candidateGames = getDataOrExit(gameService.requestGamesAddedAfter(checkpoint.getLastAppid()));
+            if (Boolean.TRUE.equals(checkpoint.getRequiresReconciliation())) {
+                log.info("Previous run did not complete, filtering persisted games from [{}] candidates.",
+                        candidateGames.size());
+                if (dependencies.isAppIdKeys()) {
+                    AppIdSet persistedAppIds = lookUpPersistedAppIds(dependencies, candidateGames);
+                    lookedUpAppIds.addAll(persistedAppIds);
+                    newGames = getNonPersistedGames(persistedAppIds, candidateGames);
+                } else {
+                    newGames = getNonPersistedGames(getPersistedAppIds(dependencies), candidateGames);
+                }
+            } else {
+                // Every game after the checkpoint appid is new, as the checkpoint only advances after a complete run.
+                newGames = candidateGames;
+            }
+            highestSyncedAppId = getHighestAppId(candidateGames);
         } else {
-            log.error("Could not retrieve list of all Steam games, exiting.");
-            System.exit(1);
+            if (incrementalSync) {
+                log.info("No checkpoint found, performing a full sync.");
+            }
+            if (dependencies.isAppIdKeys()) {
+                PersistedAppIdSnapshot snapshot = getFreshPersistedAppIdSnapshot(dependencies);
+                if (snapshot == null && dependencies.getAppIdIndexStore() != null) {
+                    snapshot = loadAppIdIndexSnapshot(dependencies);
+                }
+                if (snapshot == null) {
+                    // Looking up every game on Steam by appid would read far more than scanning only the appids.
+                    AppIdSet persistedAppIds = getPersistedAppIds(dependencies);
+                    // Every persisted game was found, so any index can be seeded with all of them.
+                    lookedUpAppIds.addAll(persistedAppIds);
+                    log.info("Retrieving all from Steam API and filtering persisted games.");
+                    newGames = getDataOrExit(gameService.requestGamesNotIn(persistedAppIds));
+                    highestSyncedAppId = Math.max(persistedAppIds.getHighestAppId(), getHighestAppId(newGames));
+                } else {
+                    log.info("Retrieving all from Steam API and looking up games missing from the snapshot by appid.");
+                    Set<Game> candidateGames = getDataOrExit(gameService.requestGamesNotIn(snapshot.getAppIds()));
+                    // Games missing from the snapshot or index are looked up, so that neither has to be exact.
+                    AppIdSet persistedAppIds = lookUpPersistedAppIds(dependencies, candidateGames);
+                    lookedUpAppIds.addAll(persistedAppIds);
+                    newGames = getNonPersistedGames(persistedAppIds, candidateGames);
+                    snapshot.addAll(candidateGames.stream()
+                            .filter(game -> persistedAppIds.contains(game.getAppid()))
+                            .collect(Collectors.toList()));
+                    highestSyncedAppId = Math.max(snapshot.getAppIds().getHighestAppId(),
+                            getHighestAppId(candidateGames));
+                }
+            } else {
+                AppIdSet persistedAppIds = getPersistedAppIds(dependencies);
+                log.debug("[{}] persisted appids retrieved.", persistedAppIds.size());
+
+                log.info("Retrieving all from Steam API and filtering persisted games.");
+                newGames = getDataOrExit(gameService.requestGamesNotIn(persistedAppIds));
+                log.debug("All games retrieved from Steam API games.");
+                // Once the new games are saved every game on Steam is persisted.
+                highestSyncedAppId = Math.max(persistedAppIds.getHighestAppId(), getHighestAppId(newGames));
+            }
+        }
+
+        dependencies.getMetrics().count(NEW_GAMES_METRIC, newGames.size(), MetricsRegistry.Unit.COUNT);
+
+        if (dependencies.getShardQueue() != null) {
+            boolean saved = queueShards(dependencies, newGames, resolutionDeadline);
+            PersistedAppIdSnapshot snapshot = dependencies.getPersistedAppIdSnapshot();
+            if (saved && snapshot != null && !newGames.isEmpty()) {
+                snapshot.addAll(newGames);
+            }
+            if (incrementalSync) {
+                if (saved) {
+                    int lastAppId = Math.max(lastAppIdOf(checkpoint), highestSyncedAppId);
+                    log.info("Advancing checkpoint to appid [{}].", lastAppId);
+                    checkpointStore.save(createCheckpoint(lastAppId, false));
+                } else {
+                    // Every game below the lowest new appid is persisted, and games from there on are reconciled by
+                    // the next run once the workers have had a chance to save them.
+                    int lastAppId = Math.max(lastAppIdOf(checkpoint), getLowestAppId(newGames) - 1);
+                    log.info("Advancing checkpoint to appid [{}] pending reconciliation of queued games.", lastAppId);
+                    checkpointStore.save(createCheckpoint(lastAppId, true));
+                }
+            }
+            return;
         }
 
-        log.debug("All games retrieved from Steam API games.");
-        log.info("Filtering persisted games.");
-        Set<Game> newGames = getNonPersistedGames(persistedGames, allSteamGames);
         for (Game game : newGames) {
-            game.setId(UUID.randomUUID() + "-" + new Date().toInstant().toEpochMilli());
+            game.setId(createGameId(dependencies, game));
+        }
+        if (incrementalSync && !newGames.isEmpty()) {
+            // Flag the checkpoint before writing so a run which dies part way through is reconciled by the next.
+            checkpointStore.save(createCheckpoint(lastAppIdOf(checkpoint), true));
+        }
+
+        BatchWriteSummary writeSummary;
+        // Games whose lookup was rate limited or cut off by the deadline are left unsaved, for a later run to look up.
+        Set<Game> deferredGames = ConcurrentHashMap.newKeySet();
+        // The in-memory tier is shared between invocations, so only count this invocation's lookups.
+        long cacheHitsBefore = appDetailsCache.getHitCount();
+        long cacheMissesBefore = appDetailsCache.getMissCount();
+
+        if (EnvironmentUtils.getBooleanOrDefault("PIPELINED_WRITES", false)) {
+            log.info("New games filtered, determining multiplayer status of and persisting [{}] games as they resolve.",
+                    newGames.size());
+            PipelinedBatchWriter<Game> pipelinedWriter = new PipelinedBatchWriter<>(batchWriter, Game.class,
+                    gameTable, EnvironmentUtils.getIntOrDefault("PIPELINE_QUEUE_CAPACITY",
+                    DEFAULT_PIPELINE_QUEUE_CAPACITY));
+            // Closed as a resource so that, should resolving fail, a failure to close is suppressed rather than hiding it.
+            try (pipelinedWriter) {
+                multiplayerStatusResolver.resolve(newGames, resolutionDeadline, (game, multiplayerStatusResult) -> {
+                    if (applyMultiplayerStatus(game, multiplayerStatusResult)) {
+                        pipelinedWriter.submit(game);
+                    } else {
+                        deferredGames.add(game);
+                    }
+                });
+            }
+            writeSummary = pipelinedWriter.getSummary();
+            newGames = getNonDeferredGames(newGames, deferredGames);
+        } else {
+            log.info("New games filtered, determining multiplayer status of [{}] games.", newGames.size());
+            multiplayerStatusResolver.resolve(newGames, resolutionDeadline)
+                    .forEach((game, multiplayerStatusResult) -> {
+                        if (!applyMultiplayerStatus(game, multiplayerStatusResult)) {
+                            deferredGames.add(game);
+                        }
+                    });
+            newGames = getNonDeferredGames(newGames, deferredGames);
+            log.info("Attempting to persist [{}] games.", newGames.size());
+            writeSummary = batchWriter.batchWrite(Game.class, newGames, gameTable);
+        }
+        recordDeferredGames(dependencies.getMetrics(), deferredGames.size());
+        appDetailsCache.flush();
+        log.info("App details cache hits: [{}], misses: [{}].", appDetailsCache.getHitCount() - cacheHitsBefore,
+                appDetailsCache.getMissCount() - cacheMissesBefore);
+        logWriteSummary(writeSummary);
+        recordWriteSummary(dependencies.getMetrics(), writeSummary);
+        updatePersistedAppIdSnapshot(dependencies, newGames, writeSummary);
+        if (dependencies.getAppIdIndexStore() != null && writeSummary.getUnprocessedItemCount() == 0) {
+            updateAppIdIndex(dependencies, newGames, lookedUpAppIds);
+        }
+
+        if (incrementalSync) {
+            if (writeSummary.getUnprocessedItemCount() > 0 || !deferredGames.isEmpty()) {
+                log.warn("Not advancing checkpoint as some games could not be saved.");
+            } else {
+                int lastAppId = Math.max(lastAppIdOf(checkpoint), highestSyncedAppId);
+                log.info("Advancing checkpoint to appid [{}].", lastAppId);
+                checkpointStore.save(createCheckpoint(lastAppId, false));
+            }
+        }
+    }
+
+    /**
+     * Entrypoint for the lambda function when run as a worker, triggered by the shard queue. Resolves the multiplayer
+     * status of and persists the games of each shard queued by a coordinator invocation, so a large backlog of new
+     * games is spread across as many concurrent invocations as there are shards.
+     *
+     * @param event   the messages received from the shard queue, each holding a shard.
+     * @param context the context of the invocation, used to find how long the invocation has left to run.
+     * @return the messages whose games could not all be saved, to be redelivered. Games are keyed by appid, so a
+     * redelivered shard overwrites any of its games saved on an earlier attempt rather than duplicating them.
+     */
+    public SQSBatchResponse handleShards(SQSEvent event, Context context) {
+        UpdateGameCollectionDependencies dependencies = getDependencies();
+        Instant resolutionDeadline = getResolutionDeadline(getInvocationDeadline(context));
+        long start = System.nanoTime();
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
+        try {
+            if (!dependencies.isAppIdKeys()) {
+                log.error("Handling shards requires 'APPID_KEYS' to be true, as redelivered shards would otherwise "
+                        + "save their games twice, exiting.");
+                System.exit(1);
+            }
+            for (SQSEvent.SQSMessage message : event.getRecords()) {
+                GameShard shard;
+                try {
+                    shard = SqsShardQueue.readShard(message.getBody());
+                } catch (ApiException e) {
+                    // Redelivering a malformed message would only fail again.
+                    log.error("Discarding shard message [{}] which could not be read.", message.getMessageId(), e);
+                    continue;
+                }
+                if (persistShard(dependencies, shard, resolutionDeadline) > 0) {
+                    failures.add(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
+                }
+            }
+        } finally {
+            publishMetrics(dependencies, Duration.ofNanos(System.nanoTime() - start));
+        }
+        return new SQSBatchResponse(failures);
+    }
+
+    /**
+     * Entrypoint for the lambda function when migrating to games keyed by appid. Copies every game from the table
+     * named by 'SOURCE_GAME_TABLE_NAME', whose games are keyed by random ids, into the Game table keyed by appid.
+     * Duplicates of a game left by earlier partial runs collapse into a single item. Games are written with puts
+     * which overwrite any copy already migrated, so the migration can be rerun until no games are left unprocessed.
+     * The source table is left untouched.
+     */
+    public void migrateGameKeys() {
+        UpdateGameCollectionDependencies dependencies = getDependencies();
+        long start = System.nanoTime();
+        try {
+            String sourceTableName = System.getenv("SOURCE_GAME_TABLE_NAME");
+            if (!dependencies.isAppIdKeys() || sourceTableName == null || sourceTableName.isBlank()) {
+                log.error("Migrating game keys requires 'APPID_KEYS' to be true and 'SOURCE_GAME_TABLE_NAME' to be "
+                        + "set, exiting.");
+                System.exit(1);
+            }
+            log.info("Copying games from [{}] keyed by appid.", sourceTableName);
+            Map<String, Game> gamesByAppId = new HashMap<>();
+            for (Game game : dependencies.getGameTableScan().apply(sourceTableName)) {
+                if (game.getAppid() != null) {
+                    // Prefer a copy whose multiplayer status was determined over one whose lookup failed.
+                    gamesByAppId.merge(game.getAppid(), game,
+                            (kept, duplicate) -> kept.getMultiplayer() != null ? kept : duplicate);
+                }
+            }
+            gamesByAppId.values().forEach(game -> game.setId(game.getAppid()));
+            log.info("Attempting to persist [{}] games keyed by appid.", gamesByAppId.size());
+            BatchWriteSummary writeSummary = dependencies.getBatchWriter().batchWrite(Game.class, gamesByAppId.values(),
+                    dependencies.getGameTable());
+            logWriteSummary(writeSummary);
+            recordWriteSummary(dependencies.getMetrics(), writeSummary);
+            // Only reflects the table before the migration.
+            dependencies.setPersistedAppIdSnapshot(null);
+        } finally {
+            publishMetrics(dependencies, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Returns the clients and services used by the lambda, creating them on the first invocation in the container.
+     *
+     * @return the clients and services used by the lambda.
+     */
+    private static synchronized UpdateGameCollectionDependencies getDependencies() {
+        if (containerDependencies == null) {
+            long start = System.nanoTime();
+            containerDependencies = new UpdateGameCollectionDependenciesFactory().create();
+            log.info("Created clients for a new container in [{}]ms.",
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        return containerDependencies;
+    }
+
+    /**
+     * Discards the snapshot of persisted appids held by the container, such as when it may have been restored from a
+     * Lambda SnapStart snapshot taken long ago.
+     */
+    static synchronized void discardPersistedAppIdSnapshot() {
+        if (containerDependencies != null) {
+            containerDependencies.setPersistedAppIdSnapshot(null);
+        }
+    }
+
+    /**
+     * @param context the context of the invocation.
+     * @return the time at which the invocation will be stopped.
+     */
+    private static Instant getInvocationDeadline(Context context) {
+        return Instant.now().plusMillis(context.getRemainingTimeInMillis());
+    }
+
+    /**
+     * @param invocationDeadline the time at which the invocation will be stopped.
+     * @return the time after which no further multiplayer status lookups should be made, leaving the reserved time
+     * for saving the games resolved.
+     */
+    private static Instant getResolutionDeadline(Instant invocationDeadline) {
+        return invocationDeadline.minus(WRITE_TIME_RESERVE);
+    }
+
+    /**
+     * Creates the clients and services used by the lambda and exercises the parts of an invocation that need no
+     * network access, so that their classes are loaded and initialised during the init phase, or before the snapshot
+     * is taken under Lambda SnapStart, rather than during the first invocation. Nothing is requested from AWS or
+     * Steam, so no credentials or secrets end up in a snapshot.
+     */
+    static void prime() {
+        long start = System.nanoTime();
+        UpdateGameCollectionDependencies dependencies = getDependencies();
+        Game game = new Game();
+        game.setId("priming");
+        game.setAppid("0");
+        game.setName("priming");
+        game.setMultiplayer(false);
+        Game.TABLE_SCHEMA.mapToItem(Game.TABLE_SCHEMA.itemToMap(game, true));
+        new AppIdSet().add(game.getAppid());
+        try {
+            new SteamAppDetailsParser().parse(new StringReader(PRIMING_APP_DETAILS_RESPONSE));
+        } catch (IOException e) {
+            log.warn("Failed to parse priming app details response.", e);
+        }
+        log.info("Primed in [{}]ms.", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Returns the appids of every persisted game, from the snapshot kept from a previous invocation if it is recent
+     * enough, otherwise from a scan of the Game table which then becomes the snapshot.
+     *
+     * @param dependencies the clients and services used by the lambda.
+     * @return the appids of every persisted game.
+     */
+    private static AppIdSet getPersistedAppIds(UpdateGameCollectionDependencies dependencies) {
+        PersistedAppIdSnapshot snapshot = getFreshPersistedAppIdSnapshot(dependencies);
+        if (snapshot != null) {
+            return snapshot.getAppIds();
+        }
+        Instant now = Instant.now();
+        long start = System.nanoTime();
+        AppIdSet persistedAppIds = dependencies.getPersistedAppIdsScan().get();
+        dependencies.getMetrics().recordDuration(PERSISTED_APP_ID_SCAN_TIME_METRIC,
+                Duration.ofNanos(System.nanoTime() - start));
+        dependencies.getMetrics().count(PERSISTED_APP_ID_SCAN_ITEMS_METRIC, persistedAppIds.size(),
+                MetricsRegistry.Unit.COUNT);
+        dependencies.setPersistedAppIdSnapshot(new PersistedAppIdSnapshot(persistedAppIds, now));
+        return persistedAppIds;
+    }
+
+    /**
+     * @param dependencies the clients and services used by the lambda.
+     * @return the snapshot of persisted appids kept from a previous invocation, or null if there is none or it is too
+     * old to be used.
+     */
+    private static PersistedAppIdSnapshot getFreshPersistedAppIdSnapshot(
+            UpdateGameCollectionDependencies dependencies) {
+        PersistedAppIdSnapshot snapshot = dependencies.getPersistedAppIdSnapshot();
+        if (snapshot == null || snapshot.isOlderThan(PERSISTED_APP_ID_SNAPSHOT_MAX_AGE, Instant.now())) {
+            return null;
+        }
+        log.info("Using snapshot of [{}] persisted appids at version [{}] taken at [{}].",
+                snapshot.getAppIds().size(), snapshot.getVersion(), snapshot.getTakenAt());
+        return snapshot;
+    }
+
+    /**
+     * Loads the persisted appid index, which becomes the snapshot of persisted appids.
+     *
+     * @param dependencies the clients and services used by the lambda.
+     * @return the new snapshot, or null if no index has been saved.
+     */
+    private static PersistedAppIdSnapshot loadAppIdIndexSnapshot(UpdateGameCollectionDependencies dependencies) {
+        long start = System.nanoTime();
+        PersistedAppIdIndex index = dependencies.getAppIdIndexStore().load();
+        AppIdSet appIds = dependencies.getAppIdIndexStore().readAppIds(index);
+        dependencies.getMetrics().recordDuration(APP_ID_INDEX_LOAD_TIME_METRIC, Duration.ofNanos(System.nanoTime() - start));
+        if (appIds == null) {
+            log.info("No persisted appid index found, the appids of every persisted game will be scanned.");
+            return null;
+        }
+        int indexBytes = index.getAppids().asByteArrayUnsafe().length;
+        dependencies.getMetrics().count(APP_ID_INDEX_BYTES_METRIC, indexBytes, MetricsRegistry.Unit.BYTES);
+        log.info("Loaded persisted appid index of [{}] appids in [{}] bytes at version [{}].", appIds.size(),
+                indexBytes, index.getVersion());
+        PersistedAppIdSnapshot snapshot = new PersistedAppIdSnapshot(appIds, Instant.now());
+        dependencies.setPersistedAppIdSnapshot(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Adds persisted games to the persisted appid index.
+     *
+     * @param dependencies the clients and services used by the lambda.
+     * @param savedGames   the games saved by this invocation.
+     * @param foundAppIds  the appids of games found to be persisted by looking them up.
+     */
+    private static void updateAppIdIndex(UpdateGameCollectionDependencies dependencies, Collection<Game> savedGames,
+                                         AppIdSet foundAppIds) {
+        if (savedGames.isEmpty() && foundAppIds.size() == 0) {
+            return;
+        }
+        log.info("Adding [{}] saved and [{}] found appids to the persisted appid index.", savedGames.size(),
+                foundAppIds.size());
+        dependencies.getAppIdIndexStore().update(appIds -> {
+            appIds.addAll(foundAppIds);
+            savedGames.forEach(game -> appIds.add(game.getAppid()));
+        });
+    }
+
+    /**
+     * Looks up which of the provided games are persisted by their appid, which is only possible when games are keyed
+     * by appid. Only the provided games are read, so the cost tracks the number of games rather than the table size.
+     *
+     * @param dependencies the clients and services used by the lambda.
+     * @param games        the games to look up.
+     * @return the appids of the games which are persisted.
+     */
+    private static AppIdSet lookUpPersistedAppIds(UpdateGameCollectionDependencies dependencies, Collection<Game> games) {
+        log.info("Looking up [{}] games by appid.", games.size());
+        long start = System.nanoTime();
+        List<Key> keys = games.stream()
+                .map(game -> Key.builder().partitionValue(game.getAppid()).build())
+                .collect(Collectors.toList());
+        AppIdSet persistedAppIds = new AppIdSet();
+        dependencies.getBatchReader().batchGet(keys, dependencies.getGameTable())
+                .forEach(game -> persistedAppIds.add(game.getAppid()));
+        dependencies.getMetrics().recordDuration(EXISTENCE_CHECK_TIME_METRIC, Duration.ofNanos(System.nanoTime() - start));
+        dependencies.getMetrics().count(EXISTENCE_CHECK_KEYS_METRIC, keys.size(), MetricsRegistry.Unit.COUNT);
+        log.debug("[{}] of [{}] games looked up are persisted.", persistedAppIds.size(), games.size());
+        return persistedAppIds;
+    }
+
+    /**
+     * Adds the games saved by this invocation to the snapshot of persisted appids. If some games could not be saved
+     * there is no telling which, so the snapshot is discarded and the next invocation scans the table instead.
+     *
+     * @param dependencies the clients and services used by the lambda.
+     * @param newGames     the games this invocation attempted to save.
+     * @param writeSummary the summary of the batch writes used to save the games.
+     */
+    private static void updatePersistedAppIdSnapshot(UpdateGameCollectionDependencies dependencies,
+                                                     Collection<Game> newGames, BatchWriteSummary writeSummary) {
+        PersistedAppIdSnapshot snapshot = dependencies.getPersistedAppIdSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        if (writeSummary.getUnprocessedItemCount() > 0) {
+            log.debug("Discarding snapshot of persisted appids as some games could not be saved.");
+            dependencies.setPersistedAppIdSnapshot(null);
+        } else if (!newGames.isEmpty()) {
+            snapshot.addAll(newGames);
+        }
+    }
+
+    /**
+     * Splits new games into shards by appid and sends them to the shard queue for workers to resolve and persist. The
+     * in-memory stand-in for the queue is drained by this invocation instead, with each shard persisted in turn as a
+     * worker would.
+     *
+     * @param dependencies       the clients and services used by the lambda.
+     * @param newGames           the games to be persisted.
+     * @param resolutionDeadline the time after which the stand-in's shards stop being looked up.
+     * @return true if every game is known to be saved, either because there were none or because the stand-in was
+     * drained without leaving any unsaved. Games handed off to workers are not known to be saved until a later run
+     * finds them persisted, so false is returned for them.
+     */
+    private static boolean queueShards(UpdateGameCollectionDependencies dependencies, Set<Game> newGames,
+                                       Instant resolutionDeadline) {
+        List<GameShard> shards = dependencies.getGameService().shardByAppId(newGames, dependencies.getShardSize());
+        try {
+            dependencies.getShardQueue().sendAll(shards);
+        } catch (ApiException e) {
+            log.error("Could not queue shards of new games, exiting.", e);
+            System.exit(1);
+        }
+        log.info("Queued [{}] shards of [{}] new games.", shards.size(), newGames.size());
+        if (newGames.isEmpty()) {
+            return true;
+        }
+        if (!(dependencies.getShardQueue() instanceof InMemoryShardQueue)) {
+            return false;
+        }
+        InMemoryShardQueue inMemoryShardQueue = (InMemoryShardQueue) dependencies.getShardQueue();
+        long unprocessedGames = 0;
+        GameShard shard;
+        while ((shard = inMemoryShardQueue.poll()) != null) {
+            unprocessedGames += persistShard(dependencies, shard, resolutionDeadline);
+        }
+        return unprocessedGames == 0;
+    }
+
+    /**
+     * Determines the multiplayer status of and persists the games of a shard.
+     *
+     * @param dependencies       the clients and services used by the lambda.
+     * @param shard              the shard to persist.
+     * @param resolutionDeadline the time after which the shard's games stop being looked up.
+     * @return the number of games of the shard which were not saved, either because they could not be written or
+     * because their lookup was rate limited or cut off by the deadline.
+     */
+    private static long persistShard(UpdateGameCollectionDependencies dependencies, GameShard shard,
+                                     Instant resolutionDeadline) {
+        List<Game> games = shard.getGames();
+        log.info("Determining multiplayer status of and persisting [{}] games with appids [{}] to [{}].",
+                games.size(), shard.getFirstAppid(), shard.getLastAppid());
+        for (Game game : games) {
+            game.setId(createGameId(dependencies, game));
+        }
+        Set<Game> deferredGames = new HashSet<>();
+        dependencies.getMultiplayerStatusResolver().resolve(games, resolutionDeadline)
+                .forEach((game, multiplayerStatusResult) -> {
+                    if (!applyMultiplayerStatus(game, multiplayerStatusResult)) {
+                        deferredGames.add(game);
+                    }
+                });
+        Set<Game> gamesToWrite = getNonDeferredGames(games, deferredGames);
+        recordDeferredGames(dependencies.getMetrics(), deferredGames.size());
+        dependencies.getAppDetailsCache().flush();
+        BatchWriteSummary writeSummary = dependencies.getBatchWriter().batchWrite(Game.class, gamesToWrite,
+                dependencies.getGameTable());
+        logWriteSummary(writeSummary);
+        recordWriteSummary(dependencies.getMetrics(), writeSummary);
+        if (dependencies.getAppIdIndexStore() != null && writeSummary.getUnprocessedItemCount() == 0) {
+            updateAppIdIndex(dependencies, gamesToWrite, new AppIdSet());
+        }
+        return writeSummary.getUnprocessedItemCount() + deferredGames.size();
+    }
+
+    /**
+     * @param dependencies the clients and services used by the lambda.
+     * @param game         the game to create an id for.
+     * @return the appid of the game if games are keyed by appid, so that saving a game again overwrites it, otherwise
+     * a new unique id.
+     */
+    private static String createGameId(UpdateGameCollectionDependencies dependencies, Game game) {
+        if (dependencies.isAppIdKeys()) {
+            return game.getAppid();
+        }
+        return UUID.randomUUID() + "-" + new Date().toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the data of a successful result, or exits the lambda if the result is unsuccessful.
+     *
+     * @param steamGamesResult the result of a request for games from the Steam API.
+     * @return the games retrieved from the Steam API.
+     */
+    private static Set<Game> getDataOrExit(Result<Set<Game>> steamGamesResult) {
+        if (!steamGamesResult.isSuccess() || steamGamesResult.getData() == null) {
+            log.error("Could not retrieve list of Steam games, exiting.");
+            System.exit(1);
+        }
+        return steamGamesResult.getData();
+    }
+
+    /**
+     * Creates a checkpoint recording how far through Steam's catalogue the collection has been synced.
+     *
+     * @param lastAppId              the highest appid that has been synced.
+     * @param requiresReconciliation whether the next run must check candidate games against the persisted games, as
+     *                               games after the checkpoint may already have been written.
+     * @return the new checkpoint.
+     */
+    private static SyncCheckpoint createCheckpoint(int lastAppId, boolean requiresReconciliation) {
+        SyncCheckpoint checkpoint = new SyncCheckpoint();
+        checkpoint.setId(CHECKPOINT_ID);
+        checkpoint.setLastAppid(lastAppId);
+        checkpoint.setRequiresReconciliation(requiresReconciliation);
+        checkpoint.setUpdatedAt(new Date().toInstant().toEpochMilli());
+        return checkpoint;
+    }
+
+    /**
+     * @param checkpoint the checkpoint loaded at the start of the run, may be null.
+     * @return the appid of the checkpoint, or 0 if there is no checkpoint.
+     */
+    private static int lastAppIdOf(SyncCheckpoint checkpoint) {
+        return checkpoint == null || checkpoint.getLastAppid() == null ? 0 : checkpoint.getLastAppid();
+    }
 
-            log.debug("Attempting to determine multiplayer status of game [{}]", game.getAppid());
-            Result<Boolean> multiplayerStatusResult = gameService.isGameMultiplayer(game);
-            if (multiplayerStatusResult.isSuccess() && multiplayerStatusResult.getData() != null) {
-                game.setMultiplayer(multiplayerStatusResult.getData());
+    /**
+     * Finds the highest numeric appid among a collection of games.
+     *
+     * @param games the games to search.
+     * @return the highest appid, or 0 if none of the games have a numeric appid.
+     */
+    private static int getHighestAppId(Collection<Game> games) {
+        int highestAppId = 0;
+        for (Game game : games) {
+            try {
+                highestAppId = Math.max(highestAppId, Integer.parseInt(game.getAppid()));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring non-numeric appid [{}] when advancing checkpoint.", game.getAppid());
             }
         }
-        log.info("New games filtered, attempting to persist [{}] games.", newGames.size());
-        DynamoDbBatchWriter dynamoDbBatchWriter = new DynamoDbBatchWriter(enhancedClient);
-        dynamoDbBatchWriter.batchWrite(Game.class, newGames, gameTable);
-        log.info("Save successful.");
+        return highestAppId;
+    }
+
+    /**
+     * Finds the lowest numeric appid among a collection of games.
+     *
+     * @param games the games to search.
+     * @return the lowest appid, or 0 if none of the games have a numeric appid.
+     */
+    private static int getLowestAppId(Collection<Game> games) {
+        int lowestAppId = Integer.MAX_VALUE;
+        for (Game game : games) {
+            try {
+                lowestAppId = Math.min(lowestAppId, Integer.parseInt(game.getAppid()));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring non-numeric appid [{}] when advancing checkpoint.", game.getAppid());
+            }
+        }
+        return lowestAppId == Integer.MAX_VALUE ? 0 : lowestAppId;
+    }
+
+    /**
+     * Logs the outcome of persisting new games.
+     *
+     * @param writeSummary the summary of the batch writes used to persist the games.
+     */
+    private static void logWriteSummary(BatchWriteSummary writeSummary) {
+        log.info("Wrote [{}] batches of [{}] games with [{}] retries, average batch latency [{}]ms, max [{}]ms.",
+                writeSummary.getBatchCount(), writeSummary.getItemCount(), writeSummary.getRetryCount(),
+                writeSummary.getAverageLatencyMillis(), writeSummary.getMaxLatencyMillis());
+        if (writeSummary.getUnprocessedItemCount() > 0) {
+            log.error("[{}] games could not be saved and will be retried on the next run.",
+                    writeSummary.getUnprocessedItemCount());
+        } else {
+            log.info("Save successful.");
+        }
+    }
+
+    /**
+     * Records the outcome of persisting new games as metrics.
+     *
+     * @param metrics      the registry to record the metrics in.
+     * @param writeSummary the summary of the batch writes used to persist the games.
+     */
+    private static void recordWriteSummary(MetricsRegistry metrics, BatchWriteSummary writeSummary) {
+        metrics.count(BATCH_WRITES_METRIC, writeSummary.getBatchCount(), MetricsRegistry.Unit.COUNT);
+        metrics.count(BATCH_WRITE_RETRIES_METRIC, writeSummary.getRetryCount(), MetricsRegistry.Unit.COUNT);
+        metrics.count(BATCH_WRITE_UNPROCESSED_ITEMS_METRIC, writeSummary.getUnprocessedItemCount(),
+                MetricsRegistry.Unit.COUNT);
+        metrics.count(GAMES_PERSISTED_METRIC, writeSummary.getItemCount() - writeSummary.getUnprocessedItemCount(),
+                MetricsRegistry.Unit.COUNT);
+        if (writeSummary.getBatchCount() > 0) {
+            metrics.record(BATCH_WRITE_AVERAGE_LATENCY_METRIC, writeSummary.getAverageLatencyMillis(),
+                    MetricsRegistry.Unit.MILLISECONDS);
+            metrics.record(BATCH_WRITE_MAX_LATENCY_METRIC, writeSummary.getMaxLatencyMillis(),
+                    MetricsRegistry.Unit.MILLISECONDS);
+        }
     }
 
     /**
-     * Given two Sets, a Set of all games and a Set of games determined to be already persisted, returns a Set of any
+     * Records the duration of and games persisted per second by an invocation, logs a summary of the app details
+     * latency and publishes every metric recorded during the invocation, then clears them for the next invocation.
+     *
+     * @param dependencies the clients and services used by the lambda.
+     * @param elapsed      the time taken by the invocation.
+     */
+    private static void publishMetrics(UpdateGameCollectionDependencies dependencies, Duration elapsed) {
+        MetricsRegistry metrics = dependencies.getMetrics();
+        metrics.recordDuration(INVOCATION_TIME_METRIC, elapsed);
+        long gamesPersisted = metrics.getCount(GAMES_PERSISTED_METRIC);
+        if (gamesPersisted > 0) {
+            metrics.record(GAMES_PER_SECOND_METRIC, gamesPersisted * 1000d / Math.max(elapsed.toMillis(), 1),
+                    MetricsRegistry.Unit.COUNT_PER_SECOND);
+        }
+        if (!metrics.getValues(SteamRequestSender.APP_DETAILS_LATENCY_METRIC).isEmpty()) {
+            log.info("App details latency p50: [{}]ms, p90: [{}]ms, p99: [{}]ms, throttled responses: [{}].",
+                    Math.round(metrics.getPercentile(SteamRequestSender.APP_DETAILS_LATENCY_METRIC, 50)),
+                    Math.round(metrics.getPercentile(SteamRequestSender.APP_DETAILS_LATENCY_METRIC, 90)),
+                    Math.round(metrics.getPercentile(SteamRequestSender.APP_DETAILS_LATENCY_METRIC, 99)),
+                    metrics.getCount(SteamRequestSender.APP_DETAILS_THROTTLED_METRIC));
+        }
+        if (dependencies.getMetricsPublisher() != null) {
+            dependencies.getMetricsPublisher().publish(metrics);
+        }
+        metrics.reset();
+    }
+
+    /**
+     * Sets the multiplayer status of a game from the result of its lookup, leaving it unset if the lookup failed.
+     *
+     * @param game                    the game whose multiplayer status was looked up.
+     * @param multiplayerStatusResult the result of the lookup.
+     * @return false if the lookup was rate limited by Steam or not made before the deadline, in which case the game
+     * should be left for a later run to look up again rather than saved without a multiplayer status it would never be
+     * given.
+     */
+    private static boolean applyMultiplayerStatus(Game game, Result<Boolean> multiplayerStatusResult) {
+        if (multiplayerStatusResult.isSuccess() && multiplayerStatusResult.getData() != null) {
+            game.setMultiplayer(multiplayerStatusResult.getData());
+            return true;
+        }
+        return multiplayerStatusResult.getErrorList() == null || multiplayerStatusResult.getErrorList().stream()
+                .noneMatch(error -> error.getType() == ErrorType.RATE_LIMITED
+                        || error.getType() == ErrorType.DEADLINE_EXCEEDED);
+    }
+
+    /**
+     * @param games         the games whose multiplayer status was looked up.
+     * @param deferredGames the games whose lookup was rate limited or not made before the deadline.
+     * @return the games which were not deferred, and so should be saved.
+     */
+    private static Set<Game> getNonDeferredGames(Collection<Game> games, Set<Game> deferredGames) {
+        return games.stream().filter(game -> !deferredGames.contains(game)).collect(Collectors.toSet());
+    }
+
+    /**
+     * Logs and records the number of games left unsaved as their lookup was rate limited or not made before the
+     * deadline.
+     *
+     * @param metrics       the registry to record the metric in.
+     * @param deferredCount the number of games whose lookup was deferred.
+     */
+    private static void recordDeferredGames(MetricsRegistry metrics, int deferredCount) {
+        metrics.count(GAMES_DEFERRED_METRIC, deferredCount, MetricsRegistry.Unit.COUNT);
+        if (deferredCount > 0) {
+            log.warn("[{}] games were rate limited by Steam or not reached before the deadline, and will be looked up "
+                    + "again on the next run.", deferredCount);
+        }
+    }
+
+    /**
+     * Given a Set of all games and the appids of games determined to be already persisted, returns a Set of any
      * non-persisted games.
      *
-     * @param persistedGames a Set of games determined to already by persisted.
-     * @param allGames       a Set of all games currently on Steam.
+     * @param persistedAppIds the appids of games determined to already by persisted.
+     * @param allGames        a Set of all games currently on Steam.
      * @return a Set of non-persisted games.
      */
-    private Set<Game> getNonPersistedGames(Set<Game> persistedGames, Set<Game> allGames) {
-        new HashSet<>(new HashSet<>(allGames));
-        return allGames.stream().filter(game -> !persistedGames.contains(game)).collect(Collectors.toSet());
+    private Set<Game> getNonPersistedGames(AppIdSet persistedAppIds, Set<Game> allGames) {
+        return allGames.stream().filter(game -> !persistedAppIds.contains(game.getAppid())).collect(Collectors.toSet());
     }
-
 }
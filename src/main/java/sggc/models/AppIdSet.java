@@ -0,0 +1,189 @@
+package sggc.models;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Represents a compact set of Steam appids. Steam appids are dense positive integers, so they are held as bits in a
+ * bitmap rather than as individual objects, with any appid that is not a small enough number held in a regular set.
+ * Methods are synchronized so the set may be populated from multiple threads.
+ */
+public class AppIdSet {
+
+    // Bounds the bitmap at 2MB; current appids are well below this.
+    private static final int MAX_BITMAP_APP_ID = 1 << 24;
+    private static final int MAX_BITMAP_APP_ID_DIGITS = 8;
+
+    private final BitSet bitmap = new BitSet();
+    private final Set<String> otherAppIds = new HashSet<>();
+    private int size;
+
+    /**
+     * Adds an appid to the set.
+     *
+     * @param appId the appid to add.
+     * @return true if the appid was not already in the set.
+     */
+    public synchronized boolean add(String appId) {
+        int bitmapIndex = toBitmapIndex(appId);
+        boolean added;
+        if (bitmapIndex == -1) {
+            added = otherAppIds.add(appId);
+        } else {
+            added = !bitmap.get(bitmapIndex);
+            bitmap.set(bitmapIndex);
+        }
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Determines whether an appid is in the set.
+     *
+     * @param appId the appid to check.
+     * @return true if the appid is in the set.
+     */
+    public synchronized boolean contains(String appId) {
+        int bitmapIndex = toBitmapIndex(appId);
+        return bitmapIndex == -1 ? otherAppIds.contains(appId) : bitmap.get(bitmapIndex);
+    }
+
+    /**
+     * Determines whether a numeric appid is in the set, without converting it to a string unless it is too large to
+     * be held in the bitmap.
+     *
+     * @param appId the appid to check.
+     * @return true if the appid is in the set.
+     */
+    public synchronized boolean contains(int appId) {
+        if (appId >= 0 && appId < MAX_BITMAP_APP_ID) {
+            return bitmap.get(appId);
+        }
+        return otherAppIds.contains(String.valueOf(appId));
+    }
+
+    /**
+     * Adds every appid of another set to this set.
+     *
+     * @param other the set whose appids should be added.
+     */
+    public void addAll(AppIdSet other) {
+        BitSet otherBitmap;
+        List<String> otherNonBitmapAppIds;
+        synchronized (other) {
+            otherBitmap = (BitSet) other.bitmap.clone();
+            otherNonBitmapAppIds = new ArrayList<>(other.otherAppIds);
+        }
+        synchronized (this) {
+            bitmap.or(otherBitmap);
+            otherAppIds.addAll(otherNonBitmapAppIds);
+            size = bitmap.cardinality() + otherAppIds.size();
+        }
+    }
+
+    /**
+     * Serializes the set, compressing the bitmap. Appids are dense enough that the compressed bitmap takes a small
+     * fraction of a byte per appid.
+     *
+     * @return the serialized set, which can be read back with {@link #fromCompressedBytes(byte[])}.
+     */
+    public synchronized byte[] toCompressedBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            byte[] bitmapBytes = bitmap.toByteArray();
+            out.writeInt(bitmapBytes.length);
+            out.write(bitmapBytes);
+            out.writeInt(otherAppIds.size());
+            for (String appId : otherAppIds) {
+                out.writeUTF(appId);
+            }
+        } catch (IOException e) {
+            // Only thrown by the underlying stream, which writes to memory.
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a set serialized by {@link #toCompressedBytes()}.
+     *
+     * @param compressedBytes the serialized set.
+     * @return the set.
+     * @throws IOException if the bytes are not a serialized set.
+     */
+    public static AppIdSet fromCompressedBytes(byte[] compressedBytes) throws IOException {
+        AppIdSet appIds = new AppIdSet();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(compressedBytes)))) {
+            int bitmapLength = in.readInt();
+            if (bitmapLength < 0) {
+                throw new IOException("Serialized appid set has a negative bitmap length.");
+            }
+            byte[] bitmapBytes = new byte[bitmapLength];
+            in.readFully(bitmapBytes);
+            appIds.bitmap.or(BitSet.valueOf(bitmapBytes));
+            int otherAppIdCount = in.readInt();
+            for (int i = 0; i < otherAppIdCount; i++) {
+                appIds.otherAppIds.add(in.readUTF());
+            }
+        }
+        appIds.size = appIds.bitmap.cardinality() + appIds.otherAppIds.size();
+        return appIds;
+    }
+
+    /**
+     * @return the number of appids in the set.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the highest numeric appid in the set, or 0 if the set contains no numeric appids.
+     */
+    public synchronized int getHighestAppId() {
+        return Math.max(bitmap.length() - 1, 0);
+    }
+
+    /**
+     * Converts an appid into its position in the bitmap, without throwing for appids which are not numbers.
+     *
+     * @param appId the appid to convert.
+     * @return the position of the appid in the bitmap, or -1 if the appid should not be held in the bitmap.
+     */
+    private static int toBitmapIndex(String appId) {
+        if (appId == null || appId.isEmpty() || appId.length() > MAX_BITMAP_APP_ID_DIGITS) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < appId.length(); i++) {
+            char digit = appId.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            value = value * 10 + (digit - '0');
+        }
+        // Leading zeros would map different strings to the same appid.
+        if (value >= MAX_BITMAP_APP_ID || (appId.length() > 1 && appId.charAt(0) == '0')) {
+            return -1;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package sggc.models;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import sggc.models.steam.GameCategory;
+import sggc.models.steam.GameData;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the details of a Steam app as previously retrieved from the Steam Store, saved so they need not be
+ * requested again until they expire.
+ */
+@RequiredArgsConstructor
+@Data
+public class CachedAppDetails {
+    public static final TableSchema<CachedAppDetails> TABLE_SCHEMA = StaticTableSchema.builder(CachedAppDetails.class)
+            .newItemSupplier(CachedAppDetails::new)
+            .addAttribute(String.class, attribute -> attribute.name("appid")
+                    .getter(CachedAppDetails::getAppid)
+                    .setter(CachedAppDetails::setAppid)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(EnhancedType.listOf(Integer.class), attribute -> attribute.name("categoryIds")
+                    .getter(CachedAppDetails::getCategoryIds)
+                    .setter(CachedAppDetails::setCategoryIds))
+            .addAttribute(Long.class, attribute -> attribute.name("cachedAt")
+                    .getter(CachedAppDetails::getCachedAt)
+                    .setter(CachedAppDetails::setCachedAt))
+            .addAttribute(Long.class, attribute -> attribute.name("expiresAt")
+                    .getter(CachedAppDetails::getExpiresAt)
+                    .setter(CachedAppDetails::setExpiresAt))
+            .build();
+
+    private String appid;
+    // DynamoDB does not allow empty sets, so the ids are held as a list.
+    private List<Integer> categoryIds;
+    private Long cachedAt;
+    // The epoch second after which the details are stale, used as the table's TTL attribute.
+    private Long expiresAt;
+
+    /**
+     * Creates the cached form of an app's details.
+     *
+     * @param appId          the appid of the app.
+     * @param gameData       the details of the app.
+     * @param nowEpochSecond the current time.
+     * @param ttlSeconds     how long the details remain fresh for.
+     * @return the cached details of the app.
+     */
+    public static CachedAppDetails of(String appId, GameData gameData, long nowEpochSecond, long ttlSeconds) {
+        CachedAppDetails cachedAppDetails = new CachedAppDetails();
+        cachedAppDetails.setAppid(appId);
+        cachedAppDetails.setCategoryIds(gameData.getCategories().stream()
+                .map(category -> category.getId().getId())
+                .collect(Collectors.toList()));
+        cachedAppDetails.setCachedAt(nowEpochSecond);
+        cachedAppDetails.setExpiresAt(nowEpochSecond + ttlSeconds);
+        return cachedAppDetails;
+    }
+
+    /**
+     * Converts the cached details back to the details of the app.
+     *
+     * @return the details of the app.
+     */
+    public GameData toGameData() {
+        Set<GameCategory> categories = new HashSet<>();
+        if (categoryIds != null) {
+            for (Integer categoryId : categoryIds) {
+                GameCategory.SteamGameCategory category = categoryId == null ? null
+                        : GameCategory.SteamGameCategory.fromId(categoryId);
+                if (category != null) {
+                    categories.add(new GameCategory(category));
+                }
+            }
+        }
+        return new GameData(categories);
+    }
+
+    /**
+     * @param nowEpochSecond the current time.
+     * @return whether the details are stale. DynamoDB only deletes expired items eventually, so this must be checked.
+     */
+    public boolean isExpired(long nowEpochSecond) {
+        return expiresAt == null || expiresAt <= nowEpochSecond;
+    }
+}
@@ -2,6 +2,9 @@ package sggc.models;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 
@@ -14,6 +17,11 @@ import java.util.Objects;
 @DynamoDbBean
 @Data
 public class Game {
+    public static final String APP_ID_ATTRIBUTE = "appid";
+
+    // Built by hand rather than introspected from the bean, which is slow and generates accessor classes at runtime.
+    public static final TableSchema<Game> TABLE_SCHEMA = createTableSchema();
+
     private String id;
     private String appid;
     private String name;
@@ -24,6 +32,30 @@ public class Game {
         return this.id;
     }
 
+    /**
+     * Builds the schema mapping a game to an item of the Game table. Prefer the shared {@link #TABLE_SCHEMA}.
+     *
+     * @return a new schema for the Game table.
+     */
+    public static StaticTableSchema<Game> createTableSchema() {
+        return StaticTableSchema.builder(Game.class)
+                .newItemSupplier(Game::new)
+                .addAttribute(String.class, attribute -> attribute.name("id")
+                        .getter(Game::getId)
+                        .setter(Game::setId)
+                        .tags(StaticAttributeTags.primaryPartitionKey()))
+                .addAttribute(String.class, attribute -> attribute.name(APP_ID_ATTRIBUTE)
+                        .getter(Game::getAppid)
+                        .setter(Game::setAppid))
+                .addAttribute(String.class, attribute -> attribute.name("name")
+                        .getter(Game::getName)
+                        .setter(Game::setName))
+                .addAttribute(Boolean.class, attribute -> attribute.name("multiplayer")
+                        .getter(Game::getMultiplayer)
+                        .setter(Game::setMultiplayer))
+                .build();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
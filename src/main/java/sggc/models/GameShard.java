@@ -0,0 +1,33 @@
+package sggc.models;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a contiguous range of new games, by appid, to be resolved and persisted by a single worker invocation.
+ */
+@Data
+@RequiredArgsConstructor
+public class GameShard {
+    private String firstAppid;
+    private String lastAppid;
+    private List<Game> games;
+
+    /**
+     * Creates a shard containing the provided games.
+     *
+     * @param games the games of the shard, in appid order.
+     * @return a new shard spanning the appids of the games.
+     */
+    public static GameShard of(List<Game> games) {
+        GameShard shard = new GameShard();
+        shard.setGames(games);
+        if (!games.isEmpty()) {
+            shard.setFirstAppid(games.get(0).getAppid());
+            shard.setLastAppid(games.get(games.size() - 1).getAppid());
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,47 @@
+package sggc.models;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.VersionedRecordExtension;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+/**
+ * Represents the appids of persisted games, saved as a single compressed bitmap so that a run can learn which games
+ * are persisted by reading one small item rather than scanning the Game table. The version is checked on every save,
+ * so concurrent writers cannot overwrite each other's additions.
+ */
+@RequiredArgsConstructor
+@Data
+public class PersistedAppIdIndex {
+    public static final TableSchema<PersistedAppIdIndex> TABLE_SCHEMA = StaticTableSchema
+            .builder(PersistedAppIdIndex.class)
+            .newItemSupplier(PersistedAppIdIndex::new)
+            .addAttribute(String.class, attribute -> attribute.name("id")
+                    .getter(PersistedAppIdIndex::getId)
+                    .setter(PersistedAppIdIndex::setId)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(SdkBytes.class, attribute -> attribute.name("appids")
+                    .getter(PersistedAppIdIndex::getAppids)
+                    .setter(PersistedAppIdIndex::setAppids))
+            .addAttribute(Integer.class, attribute -> attribute.name("appidCount")
+                    .getter(PersistedAppIdIndex::getAppidCount)
+                    .setter(PersistedAppIdIndex::setAppidCount))
+            .addAttribute(Long.class, attribute -> attribute.name("version")
+                    .getter(PersistedAppIdIndex::getVersion)
+                    .setter(PersistedAppIdIndex::setVersion)
+                    .tags(VersionedRecordExtension.AttributeTags.versionAttribute()))
+            .addAttribute(Long.class, attribute -> attribute.name("updatedAt")
+                    .getter(PersistedAppIdIndex::getUpdatedAt)
+                    .setter(PersistedAppIdIndex::setUpdatedAt))
+            .build();
+
+    private String id;
+    // The appids as written by AppIdSet#toCompressedBytes.
+    private SdkBytes appids;
+    private Integer appidCount;
+    private Long version;
+    private Long updatedAt;
+}
@@ -0,0 +1,48 @@
+package sggc.models;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Represents a snapshot of the appids of every persisted game, kept between invocations of a warm lambda container
+ * so the Game table need not be scanned on every run. The snapshot is refreshed incrementally as games are saved,
+ * with its version incremented on every refresh.
+ */
+@Getter
+public class PersistedAppIdSnapshot {
+
+    private final AppIdSet appIds;
+    private final Instant takenAt;
+    private volatile long version = 1;
+
+    /**
+     * @param appIds  the appids of every persisted game.
+     * @param takenAt when the appids were read from the Game table.
+     */
+    public PersistedAppIdSnapshot(AppIdSet appIds, Instant takenAt) {
+        this.appIds = appIds;
+        this.takenAt = takenAt;
+    }
+
+    /**
+     * Adds newly persisted games to the snapshot.
+     *
+     * @param games the games that have been persisted.
+     */
+    public synchronized void addAll(Collection<Game> games) {
+        games.forEach(game -> appIds.add(game.getAppid()));
+        version++;
+    }
+
+    /**
+     * @param maxAge the age after which the snapshot should be taken again.
+     * @param now    the current time.
+     * @return whether the snapshot was taken longer ago than the maximum age.
+     */
+    public boolean isOlderThan(Duration maxAge, Instant now) {
+        return takenAt.plus(maxAge).isBefore(now);
+    }
+}
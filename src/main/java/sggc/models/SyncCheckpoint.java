@@ -0,0 +1,37 @@
+package sggc.models;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+/**
+ * Represents how far through Steam's catalogue the game collection has been synced, allowing later runs to only
+ * process apps added since.
+ */
+@RequiredArgsConstructor
+@Data
+public class SyncCheckpoint {
+    public static final TableSchema<SyncCheckpoint> TABLE_SCHEMA = StaticTableSchema.builder(SyncCheckpoint.class)
+            .newItemSupplier(SyncCheckpoint::new)
+            .addAttribute(String.class, attribute -> attribute.name("id")
+                    .getter(SyncCheckpoint::getId)
+                    .setter(SyncCheckpoint::setId)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(Integer.class, attribute -> attribute.name("lastAppid")
+                    .getter(SyncCheckpoint::getLastAppid)
+                    .setter(SyncCheckpoint::setLastAppid))
+            .addAttribute(Boolean.class, attribute -> attribute.name("requiresReconciliation")
+                    .getter(SyncCheckpoint::getRequiresReconciliation)
+                    .setter(SyncCheckpoint::setRequiresReconciliation))
+            .addAttribute(Long.class, attribute -> attribute.name("updatedAt")
+                    .getter(SyncCheckpoint::getUpdatedAt)
+                    .setter(SyncCheckpoint::setUpdatedAt))
+            .build();
+
+    private String id;
+    private Integer lastAppid;
+    private Boolean requiresReconciliation;
+    private Long updatedAt;
+}
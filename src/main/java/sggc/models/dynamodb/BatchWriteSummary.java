@@ -0,0 +1,54 @@
+package sggc.models.dynamodb;
+
+import lombok.Data;
+
+/**
+ * Represents a summary of one or more batch writes to a DynamoDB table, used to size the table's write capacity.
+ */
+@Data
+public class BatchWriteSummary {
+    private int batchCount;
+    private int itemCount;
+    private int retryCount;
+    private int unprocessedItemCount;
+    private long totalLatencyMillis;
+    private long maxLatencyMillis;
+
+    /**
+     * Records the outcome of a single batch write.
+     *
+     * @param items            the number of items in the batch.
+     * @param retries          the number of times unprocessed items from the batch were resubmitted.
+     * @param unprocessedItems the number of items still unprocessed once the batch was given up on.
+     * @param latencyMillis    the time taken to write the batch, including retries and backoff.
+     */
+    public void recordBatch(int items, int retries, int unprocessedItems, long latencyMillis) {
+        batchCount++;
+        itemCount += items;
+        retryCount += retries;
+        unprocessedItemCount += unprocessedItems;
+        totalLatencyMillis += latencyMillis;
+        maxLatencyMillis = Math.max(maxLatencyMillis, latencyMillis);
+    }
+
+    /**
+     * Adds the batches recorded by another summary to this one.
+     *
+     * @param other the summary to add.
+     */
+    public void merge(BatchWriteSummary other) {
+        batchCount += other.batchCount;
+        itemCount += other.itemCount;
+        retryCount += other.retryCount;
+        unprocessedItemCount += other.unprocessedItemCount;
+        totalLatencyMillis += other.totalLatencyMillis;
+        maxLatencyMillis = Math.max(maxLatencyMillis, other.maxLatencyMillis);
+    }
+
+    /**
+     * @return the mean time taken to write a batch, or 0 if no batches were recorded.
+     */
+    public long getAverageLatencyMillis() {
+        return batchCount == 0 ? 0 : totalLatencyMillis / batchCount;
+    }
+}
@@ -4,5 +4,8 @@ package sggc.models.service.error;
  * Represents the type of error being returned from a service method call.
  */
 public enum ErrorType {
-    EXCEPTION_ENCOUNTERED
+    EXCEPTION_ENCOUNTERED,
+    TIMEOUT,
+    RATE_LIMITED,
+    DEADLINE_EXCEEDED
 }
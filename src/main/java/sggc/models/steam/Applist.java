@@ -1,15 +1,80 @@
 package sggc.models.steam;
 
-import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import com.google.gson.annotations.JsonAdapter;
+import sggc.models.AppIdSet;
+import sggc.models.Game;
 
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Represents a list of Steam applications.
+ * Represents a list of Steam applications. The list covers every app on Steam, so rather than a {@link Game} per app
+ * it is held in columns: an array of appids, and the names of every app concatenated into a single pool indexed by
+ * offset. Games are only created for the apps that are asked for, typically the few not yet persisted.
  */
-@Data
-@RequiredArgsConstructor
+@JsonAdapter(ApplistTypeAdapter.class)
 public class Applist {
-    private Set<sggc.models.Game> apps;
+
+    private final int[] appids;
+    private final String namePool;
+    // The offset of each app's name in the pool, followed by the length of the pool.
+    private final int[] nameOffsets;
+    private final BitSet nullNames;
+
+    /**
+     * @param appids      the appid of each app.
+     * @param namePool    the names of every app, concatenated in the order of the appids.
+     * @param nameOffsets the offset of each app's name in the pool, followed by the length of the pool.
+     * @param nullNames   the positions of the apps which have no name.
+     */
+    public Applist(int[] appids, String namePool, int[] nameOffsets, BitSet nullNames) {
+        this.appids = appids;
+        this.namePool = namePool;
+        this.nameOffsets = nameOffsets;
+        this.nullNames = nullNames;
+    }
+
+    /**
+     * @return the number of apps in the list.
+     */
+    public int size() {
+        return appids.length;
+    }
+
+    /**
+     * @param index the position of the app in the list.
+     * @return the appid of the app.
+     */
+    public int getAppid(int index) {
+        return appids[index];
+    }
+
+    /**
+     * @param index the position of the app in the list.
+     * @return the name of the app, or null if it has none.
+     */
+    public String getName(int index) {
+        return nullNames.get(index) ? null : namePool.substring(nameOffsets[index], nameOffsets[index + 1]);
+    }
+
+    /**
+     * Creates a game for every app in the list whose appid is not in the provided set, without creating any object
+     * for the apps which are.
+     *
+     * @param appIds the appids of the apps to leave out, such as those of games already persisted.
+     * @return a Set of the apps not in the provided set as games.
+     */
+    public Set<Game> getGamesNotIn(AppIdSet appIds) {
+        Set<Game> games = new HashSet<>();
+        for (int i = 0; i < appids.length; i++) {
+            if (!appIds.contains(appids[i])) {
+                Game game = new Game();
+                game.setAppid(String.valueOf(appids[i]));
+                game.setName(getName(i));
+                games.add(game);
+            }
+        }
+        return games;
+    }
 }
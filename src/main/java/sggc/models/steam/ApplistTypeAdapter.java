@@ -0,0 +1,130 @@
+package sggc.models.steam;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reads and writes an {@link Applist} in the format returned by the Steam API's GetAppList endpoint, filling its
+ * columns directly from the JSON so that no object is created per app.
+ */
+public class ApplistTypeAdapter extends TypeAdapter<Applist> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Names average around 20 characters.
+    private static final int INITIAL_NAME_POOL_CAPACITY = INITIAL_CAPACITY * 20;
+
+    /**
+     * Writes an app list as a JSON object with an array of apps, each holding an appid and a name.
+     *
+     * @param out   the writer to write the app list to.
+     * @param value the app list to write.
+     * @throws IOException if the JSON could not be written.
+     */
+    @Override
+    public void write(JsonWriter out, Applist value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("apps");
+        out.beginArray();
+        for (int i = 0; i < value.size(); i++) {
+            out.beginObject();
+            out.name("appid").value(value.getAppid(i));
+            out.name("name").value(value.getName(i));
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    /**
+     * Reads an app list, skipping any fields other than the appid and name of each app, and any app with no appid.
+     *
+     * @param in the reader positioned at the start of the app list.
+     * @return the app list.
+     * @throws IOException if the app list is not valid JSON, or an appid is not a number.
+     */
+    @Override
+    public Applist read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int[] appids = new int[INITIAL_CAPACITY];
+        int[] nameOffsets = new int[INITIAL_CAPACITY + 1];
+        StringBuilder namePool = new StringBuilder(INITIAL_NAME_POOL_CAPACITY);
+        BitSet nullNames = new BitSet();
+        int size = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!"apps".equals(in.nextName()) || in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                Integer appid = null;
+                String name = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String fieldName = in.nextName();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else if ("appid".equals(fieldName)) {
+                        appid = readAppid(in);
+                    } else if ("name".equals(fieldName)) {
+                        name = in.nextString();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                if (appid == null) {
+                    continue;
+                }
+                if (size == appids.length) {
+                    appids = Arrays.copyOf(appids, size * 2);
+                    nameOffsets = Arrays.copyOf(nameOffsets, size * 2 + 1);
+                }
+                appids[size] = appid;
+                nameOffsets[size] = namePool.length();
+                if (name == null) {
+                    nullNames.set(size);
+                } else {
+                    namePool.append(name);
+                }
+                size++;
+            }
+            in.endArray();
+        }
+        in.endObject();
+        nameOffsets[size] = namePool.length();
+        return new Applist(Arrays.copyOf(appids, size), namePool.toString(), Arrays.copyOf(nameOffsets, size + 1),
+                nullNames);
+    }
+
+    /**
+     * Reads an appid, which Steam returns as a number.
+     *
+     * @param in the reader positioned at the appid.
+     * @return the appid.
+     * @throws IOException if the appid is not valid JSON, or not a number that fits in an int.
+     */
+    private static int readAppid(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Expected an integer appid at " + in.getPath(), e);
+        }
+    }
+}
@@ -19,10 +19,34 @@ public class GameCategory {
         @SerializedName("2")
         SINGLE_PLAYER(2);
 
+        private static final SteamGameCategory[] CATEGORIES = values();
+
         private final int id;
 
         SteamGameCategory(int id) {
             this.id = id;
         }
+
+        /**
+         * @return the id Steam uses for the category.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Looks up a category by the id Steam uses for it.
+         *
+         * @param id the Steam id of the category.
+         * @return the matching category, or null if the category is not known to the application.
+         */
+        public static SteamGameCategory fromId(int id) {
+            for (SteamGameCategory category : CATEGORIES) {
+                if (category.id == id) {
+                    return category;
+                }
+            }
+            return null;
+        }
     }
 }
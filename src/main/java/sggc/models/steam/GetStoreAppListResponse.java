@@ -0,0 +1,13 @@
+package sggc.models.steam;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Represents a response from the Steam Store service's GetAppList endpoint.
+ */
+@Data
+@RequiredArgsConstructor
+public class GetStoreAppListResponse {
+    private StoreAppList response;
+}
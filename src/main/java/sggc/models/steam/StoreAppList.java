@@ -0,0 +1,20 @@
+package sggc.models.steam;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Represents a page of Steam applications returned by the Steam Store service, ordered by appid.
+ */
+@Data
+@RequiredArgsConstructor
+public class StoreAppList {
+    private Set<sggc.models.Game> apps;
+    @SerializedName("have_more_results")
+    private boolean haveMoreResults;
+    @SerializedName("last_appid")
+    private Integer lastAppid;
+}
@@ -3,20 +3,33 @@ package sggc.services;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import sggc.exceptions.ApiException;
+import sggc.exceptions.ThrottledException;
+import sggc.infrastructure.AppDetailsCache;
 import sggc.infrastructure.SteamRequestSender;
+import sggc.models.AppIdSet;
 import sggc.models.Game;
+import sggc.models.GameShard;
 import sggc.models.service.ErrorResult;
 import sggc.models.service.Result;
 import sggc.models.service.SuccessResult;
 import sggc.models.service.error.Error;
 import sggc.models.service.error.ErrorType;
 import sggc.models.steam.GameCategory;
+import sggc.models.steam.Applist;
 import sggc.models.steam.GameData;
-import sggc.models.steam.GetAppListResponse;
+import sggc.models.steam.StoreAppList;
+import sggc.utils.CollectionUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Represents a service for containing business logic related to Game objects.
@@ -25,7 +38,16 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class GameService {
 
+    // The Steam Store service caps pages at 50,000 apps.
+    private static final int STORE_APP_LIST_PAGE_SIZE = 50000;
+
     private final SteamRequestSender steamRequestSender;
+    // May be null, in which case the details of every game are requested from Steam.
+    private final AppDetailsCache appDetailsCache;
+
+    public GameService(SteamRequestSender steamRequestSender) {
+        this(steamRequestSender, null);
+    }
 
     /**
      * Determines whether the provided game is considered by Steam to be multiplayer.
@@ -35,16 +57,77 @@ public class GameService {
      * encountered an {@link ErrorResult} object containing details on the error.
      */
     public Result<Boolean> isGameMultiplayer(Game game) {
+        if (appDetailsCache != null) {
+            GameData cachedAppDetails = appDetailsCache.getAll(List.of(game.getAppid())).get(game.getAppid());
+            if (cachedAppDetails != null) {
+                return toMultiplayerStatus(game, cachedAppDetails);
+            }
+        }
+        return requestMultiplayerStatus(game);
+    }
+
+    /**
+     * Determines whether each of the provided games is considered by Steam to be multiplayer from their cached details,
+     * looking up every game in the cache at once.
+     *
+     * @param games the games to check.
+     * @return a map of each game with cached details to a {@link SuccessResult} object containing the game's
+     * multiplayer status. Games with no cached details are omitted.
+     */
+    public Map<Game, Result<Boolean>> getCachedMultiplayerStatuses(Collection<Game> games) {
+        Map<Game, Result<Boolean>> results = new HashMap<>();
+        if (appDetailsCache == null || games.isEmpty()) {
+            return results;
+        }
+        Map<String, GameData> cachedAppDetails = appDetailsCache.getAll(games.stream()
+                .map(Game::getAppid)
+                .collect(Collectors.toList()));
+        for (Game game : games) {
+            GameData appDetails = cachedAppDetails.get(game.getAppid());
+            if (appDetails != null) {
+                results.put(game, toMultiplayerStatus(game, appDetails));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Determines whether the provided game is considered by Steam to be multiplayer by requesting its details from
+     * Steam without looking in the cache, for games already known to have no cached details. The details are cached.
+     *
+     * @param game the game to check
+     * @return A {@link SuccessResult} object containing the game's multiplayer status. If instead an error was
+     * encountered an {@link ErrorResult} object containing details on the error.
+     */
+    public Result<Boolean> requestMultiplayerStatus(Game game) {
         log.debug("Attempting to determine whether game [{}] is multiplayer.", game.getAppid());
         GameData parsedResponse;
         try {
             parsedResponse = steamRequestSender.getAppDetails(game.getAppid());
+        } catch (ThrottledException e) {
+            String errorMessage = "Rate limited by Steam when trying to determine game's multiplayer status.";
+            log.error(errorMessage);
+            return new ErrorResult<>(List.of(new Error(ErrorType.RATE_LIMITED, errorMessage)));
         } catch (ApiException | IOException e) {
             String errorMessage = "Error encountered when trying to determine game's multiplayer status.";
             log.error(errorMessage);
             return new ErrorResult<>(List.of(new Error(ErrorType.EXCEPTION_ENCOUNTERED,
                     errorMessage)));
         }
+        if (appDetailsCache != null) {
+            appDetailsCache.putAll(Map.of(game.getAppid(), parsedResponse));
+        }
+        return toMultiplayerStatus(game, parsedResponse);
+    }
+
+    /**
+     * Determines whether a game is multiplayer from its details.
+     *
+     * @param game           the game to check.
+     * @param parsedResponse the details of the game retrieved from Steam.
+     * @return A {@link SuccessResult} object containing the game's multiplayer status.
+     */
+    private Result<Boolean> toMultiplayerStatus(Game game, GameData parsedResponse) {
         //Check for presence of multiplayer category
         for (GameCategory category : parsedResponse.getCategories()) {
             if (category.getId() == GameCategory.SteamGameCategory.MULTIPLAYER) {
@@ -57,16 +140,91 @@ public class GameService {
     }
 
     /**
-     * Sends a request to the Steam API to retrieve a Set of all games currently stored on the platform.
+     * Splits games into shards of contiguous appids, so that each can be resolved and persisted independently.
      *
-     * @return A {@link SuccessResult} object containing all games currently stored on Steam. If instead an error was
-     * encountered an {@link ErrorResult} object containing details on the error.
+     * @param games     the games to split.
+     * @param shardSize the maximum number of games in each shard.
+     * @return the shards, in appid order. Games with a non-numeric appid are placed after all others.
+     */
+    public List<GameShard> shardByAppId(Collection<Game> games, int shardSize) {
+        List<Game> sortedGames = new ArrayList<>(games);
+        sortedGames.sort(Comparator.comparingLong(game -> toSortableAppId(game.getAppid())));
+        return CollectionUtils.partition(sortedGames, shardSize).stream()
+                .map(GameShard::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts an appid into a number it can be ordered by.
+     *
+     * @param appId the appid to convert.
+     * @return the numeric value of the appid, or {@link Long#MAX_VALUE} if the appid is not a number.
+     */
+    private static long toSortableAppId(String appId) {
+        try {
+            return Long.parseLong(appId);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Sends a request to the Steam API to retrieve a Set of the games currently stored on the platform whose appids
+     * are not in the provided set. Every game on Steam is held as a compact list of appids and names, and only the
+     * games not in the set are created.
+     *
+     * @param appIds the appids of the games to leave out, such as those of games already persisted.
+     * @return A {@link SuccessResult} object containing the games on Steam not in the provided set. If instead an
+     * error was encountered an {@link ErrorResult} object containing details on the error.
      */
-    public Result<Set<Game>> requestAllGamesFromSteam() {
-        log.info("Contacting the Steam API for a Set of games.");
+    public Result<Set<Game>> requestGamesNotIn(AppIdSet appIds) {
+        log.info("Contacting the Steam API for games not in a set of [{}] appids.", appIds.size());
         try {
-            GetAppListResponse getGamesResponse = steamRequestSender.getListOfAllSteamGames();
-            return new SuccessResult<>(getGamesResponse.getApplist().getApps());
+            Applist applist = steamRequestSender.getListOfAllSteamGames().getApplist();
+            if (applist == null) {
+                return new SuccessResult<>(new HashSet<>());
+            }
+            Set<Game> games = applist.getGamesNotIn(appIds);
+            log.debug("[{}] of [{}] games on Steam are not in the set.", games.size(), applist.size());
+            return new SuccessResult<>(games);
+        } catch (IOException | ApiException ex) {
+            String logMessage = "Error occurred during the request to Steam API.";
+            log.error(logMessage, ex);
+            return new ErrorResult<>(List.of(new Error(ErrorType.EXCEPTION_ENCOUNTERED,
+                    logMessage)));
+        }
+    }
+
+    /**
+     * Sends requests to the Steam API to retrieve a Set of all games on the platform with an appid greater than the
+     * one provided, following the paging of the response until every such game has been retrieved.
+     *
+     * @param lastAppId the appid after which games should be retrieved.
+     * @return A {@link SuccessResult} object containing all games on Steam after the specified appid. If instead an
+     * error was encountered an {@link ErrorResult} object containing details on the error.
+     */
+    public Result<Set<Game>> requestGamesAddedAfter(int lastAppId) {
+        log.info("Contacting the Steam API for games after appid [{}].", lastAppId);
+        Set<Game> games = new HashSet<>();
+        int pageAfterAppId = lastAppId;
+        try {
+            boolean haveMoreResults = true;
+            while (haveMoreResults) {
+                StoreAppList page = steamRequestSender.getStoreAppListPage(pageAfterAppId, STORE_APP_LIST_PAGE_SIZE)
+                        .getResponse();
+                if (page == null) {
+                    break;
+                }
+                if (page.getApps() != null) {
+                    games.addAll(page.getApps());
+                }
+                haveMoreResults = page.isHaveMoreResults() && page.getLastAppid() != null;
+                if (haveMoreResults) {
+                    pageAfterAppId = page.getLastAppid();
+                }
+            }
+            log.debug("Retrieved [{}] games after appid [{}].", games.size(), lastAppId);
+            return new SuccessResult<>(games);
         } catch (IOException | ApiException ex) {
             String logMessage = "Error occurred during the request to Steam API.";
             log.error(logMessage, ex);
@@ -0,0 +1,256 @@
+package sggc.services;
+
+import lombok.extern.slf4j.Slf4j;
+import sggc.models.Game;
+import sggc.models.service.ErrorResult;
+import sggc.models.service.Result;
+import sggc.models.service.error.Error;
+import sggc.models.service.error.ErrorType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a service for determining the multiplayer status of many games concurrently.
+ */
+@Slf4j
+public class MultiplayerStatusResolver {
+
+    private final GameService gameService;
+    private final int parallelism;
+    private final Duration callTimeout;
+
+    /**
+     * @param gameService the service used to determine the multiplayer status of games.
+     * @param parallelism the maximum number of lookups to have in flight at any one time.
+     * @param callTimeout the time after which a lookup is given up on and its thread interrupted.
+     * @throws IllegalArgumentException if the parallelism is less than 1, or the call timeout is not positive.
+     */
+    public MultiplayerStatusResolver(GameService gameService, int parallelism, Duration callTimeout) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("Parallelism must be at least 1, was [%d].",
+                    parallelism));
+        }
+        if (callTimeout.isNegative() || callTimeout.isZero()) {
+            throw new IllegalArgumentException(String.format("Call timeout must be positive, was [%s].",
+                    callTimeout));
+        }
+        this.gameService = gameService;
+        this.parallelism = parallelism;
+        this.callTimeout = callTimeout;
+    }
+
+    /**
+     * Determines the multiplayer status of each of the provided games, with at most {@code parallelism} lookups in
+     * flight at any one time.
+     *
+     * @param games    the games whose multiplayer status should be determined.
+     * @param deadline the time after which no further lookups are made, and those in flight are given up on.
+     * @return a map of each game to the result of its lookup. Lookups that exceed the call timeout are mapped to an
+     * {@link ErrorResult}, as are games not looked up before the deadline, or whose lookup was still in flight at it,
+     * with an error of type {@link ErrorType#DEADLINE_EXCEEDED}. The map is populated in completion order, so no ordering should be assumed.
+     */
+    public Map<Game, Result<Boolean>> resolve(Collection<Game> games, Instant deadline) {
+        Map<Game, Result<Boolean>> results = new ConcurrentHashMap<>();
+        resolve(games, deadline, results::put);
+        return results;
+    }
+
+    /**
+     * Determines the multiplayer status of each of the provided games, with at most {@code parallelism} lookups in
+     * flight at any one time, handing each result to the provided consumer as soon as its lookup completes. Every game
+     * is first looked for in the app details cache at once, so that only games with no cached details are looked up
+     * one at a time.
+     *
+     * @param games    the games whose multiplayer status should be determined.
+     * @param deadline the time after which no further lookups are made and those in flight are given up on, so that
+     *                 the caller is left time to save the games which were resolved.
+     * @param consumer the consumer to receive each game alongside the result of its lookup. Lookups that exceed the
+     *                 call timeout are passed as an {@link ErrorResult}, as are games not looked up before the
+     *                 deadline, or whose lookup was still in flight at it, with an error of type
+     *                 {@link ErrorType#DEADLINE_EXCEEDED}. Games with cached details
+     *                 are passed from the calling thread before any lookup is made, the rest concurrently from worker
+     *                 threads and in completion order, so it must be thread-safe. A consumer which blocks will hold
+     *                 back further lookups.
+     * @throws RuntimeException the first exception thrown by the consumer. No further lookups are submitted once the
+     *                          consumer has thrown, and those in flight are waited for but their results are not
+     *                          passed to it, so that it is never called after this returns.
+     */
+    public void resolve(Collection<Game> games, Instant deadline, BiConsumer<Game, Result<Boolean>> consumer) {
+        Map<Game, Result<Boolean>> cachedResults = gameService.getCachedMultiplayerStatuses(games);
+        cachedResults.forEach(consumer);
+        List<Game> uncachedGames = games.stream()
+                .filter(game -> !cachedResults.containsKey(game))
+                .collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        // A timed out lookup is interrupted but keeps its permit until its thread is free, so that no more lookups are
+        // running than there are threads to run them.
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        AtomicReference<RuntimeException> consumerFailure = new AtomicReference<>();
+        int submitted = 0;
+        try {
+            for (Game game : uncachedGames) {
+                long untilDeadlineNanos = Duration.between(Instant.now(), deadline).toNanos();
+                if (untilDeadlineNanos <= 0 || !inFlight.tryAcquire(untilDeadlineNanos, TimeUnit.NANOSECONDS)
+                        || consumerFailure.get() != null) {
+                    break;
+                }
+                lookups.add(submitLookup(game, deadline, executor, timer, inFlight)
+                        .exceptionally(ex -> lookupFailed(game, ex))
+                        .thenAcceptAsync(result -> {
+                            if (consumerFailure.get() != null) {
+                                return;
+                            }
+                            try {
+                                consumer.accept(game, result);
+                            } catch (RuntimeException e) {
+                                if (consumerFailure.compareAndSet(null, e)) {
+                                    // Wakes the submitting thread should it be waiting for a permit.
+                                    inFlight.release();
+                                }
+                            }
+                        }, executor));
+                submitted++;
+            }
+            if (submitted < uncachedGames.size() && consumerFailure.get() == null) {
+                log.warn("Deadline reached after [{}] of [{}] lookups were submitted, deferring the rest.", submitted,
+                        uncachedGames.size());
+                try {
+                    passDeadlineExceeded(uncachedGames.subList(submitted, uncachedGames.size()), consumer);
+                } catch (RuntimeException e) {
+                    consumerFailure.compareAndSet(null, e);
+                }
+            }
+            // Even once the consumer has failed, so that it is not called by a lookup finishing after this returns.
+            CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).join();
+        } catch (InterruptedException e) {
+            log.error("Interrupted while determining multiplayer statuses, [{}] of [{}] lookups were submitted.",
+                    submitted, uncachedGames.size());
+            Thread.currentThread().interrupt();
+        } finally {
+            timer.shutdownNow();
+            executor.shutdownNow();
+        }
+        RuntimeException failure = consumerFailure.get();
+        if (failure != null) {
+            log.error("Stopped determining multiplayer statuses after [{}] of [{}] lookups were submitted, as the "
+                    + "consumer of their results failed.", submitted, uncachedGames.size());
+            throw failure;
+        }
+    }
+
+    /**
+     * Submits a lookup of a game's multiplayer status, which is given up on once the call timeout or the deadline has
+     * passed, whichever comes first. A lookup that times out while running is interrupted, and one that times out
+     * before it starts is never run, so a stalled lookup does not hold on to its thread and permit for any longer than
+     * it takes to respond to the interrupt.
+     *
+     * @param game     the game whose multiplayer status should be determined.
+     * @param deadline the time after which the lookup is given up on, even if the call timeout has not passed.
+     * @param executor the executor to run the lookup on.
+     * @param timer    the executor to time the lookup out on.
+     * @param inFlight the permits limiting the lookups in flight, one of which is held for this lookup and released
+     *                 once it finishes or times out before starting.
+     * @return a future completed with the result of the lookup, or exceptionally with a {@link TimeoutException}, which
+     * is a {@link DeadlineExceededException} if the lookup was cut short by the deadline.
+     */
+    private CompletableFuture<Result<Boolean>> submitLookup(Game game, Instant deadline, ExecutorService executor,
+                                                            ScheduledExecutorService timer, Semaphore inFlight) {
+        long untilDeadlineNanos = Duration.between(Instant.now(), deadline).toNanos();
+        boolean cutByDeadline = untilDeadlineNanos < callTimeout.toNanos();
+        long timeoutNanos = cutByDeadline ? untilDeadlineNanos : callTimeout.toNanos();
+        CompletableFuture<Result<Boolean>> lookup = new CompletableFuture<>();
+        // Claimed by whichever of the lookup starting and timing out comes first, so the permit is released once.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<?> task = executor.submit(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                lookup.complete(gameService.requestMultiplayerStatus(game));
+            } catch (RuntimeException e) {
+                lookup.completeExceptionally(e);
+            } finally {
+                inFlight.release();
+            }
+        });
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (lookup.completeExceptionally(cutByDeadline ? new DeadlineExceededException()
+                    : new TimeoutException())) {
+                if (claimed.compareAndSet(false, true)) {
+                    inFlight.release();
+                } else {
+                    task.cancel(true);
+                }
+            }
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+        lookup.whenComplete((result, ex) -> timeout.cancel(false));
+        return lookup;
+    }
+
+    /**
+     * Passes each of the provided games to the consumer with an {@link ErrorResult} showing it was not looked up
+     * before the deadline.
+     *
+     * @param games    the games which were not looked up.
+     * @param consumer the consumer to receive each game.
+     */
+    private static void passDeadlineExceeded(List<Game> games, BiConsumer<Game, Result<Boolean>> consumer) {
+        String errorMessage = "Deadline was reached before game's multiplayer status could be determined.";
+        for (Game game : games) {
+            consumer.accept(game, new ErrorResult<>(List.of(new Error(ErrorType.DEADLINE_EXCEEDED, errorMessage))));
+        }
+    }
+
+    /**
+     * Converts an exception thrown by a multiplayer status lookup into an {@link ErrorResult}.
+     *
+     * @param game the game whose lookup failed.
+     * @param ex   the exception thrown by the lookup.
+     * @return an {@link ErrorResult} object containing details on the failure.
+     */
+    private Result<Boolean> lookupFailed(Game game, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof DeadlineExceededException) {
+            String errorMessage = "Deadline was reached before game's multiplayer status could be determined.";
+            log.warn("Multiplayer status lookup of game [{}] was still in flight at the deadline.", game.getAppid());
+            return new ErrorResult<>(List.of(new Error(ErrorType.DEADLINE_EXCEEDED, errorMessage)));
+        }
+        if (cause instanceof TimeoutException) {
+            String errorMessage = String.format("Timed out after [%d]ms when determining game's multiplayer status.",
+                    callTimeout.toMillis());
+            log.error("Multiplayer status lookup of game [{}] timed out.", game.getAppid());
+            return new ErrorResult<>(List.of(new Error(ErrorType.TIMEOUT, errorMessage)));
+        }
+        String errorMessage = "Error encountered when trying to determine game's multiplayer status.";
+        log.error("Multiplayer status lookup of game [{}] failed.", game.getAppid(), cause);
+        return new ErrorResult<>(List.of(new Error(ErrorType.EXCEPTION_ENCOUNTERED, errorMessage)));
+    }
+
+    /**
+     * Signals that a lookup was given up on as the deadline passed before the call timeout did.
+     */
+    private static class DeadlineExceededException extends TimeoutException {
+    }
+}
@@ -0,0 +1,94 @@
+package sggc.utils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a limit on the number of concurrent requests which adapts using additive increase/multiplicative
+ * decrease (AIMD). The limit grows by roughly one for every limit's worth of successful requests, and is halved
+ * whenever a request is throttled, so it settles around the highest concurrency the remote service will tolerate.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double DECREASE_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * @param initialLimit the number of concurrent requests to allow to begin with.
+     * @param minLimit     the lowest the limit may be reduced to.
+     * @param maxLimit     the highest the limit may be raised to.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    /**
+     * Reserves a slot for a request, blocking until the number of requests in flight is below the current limit.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for a slot.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    /**
+     * Reserves a slot for a request, blocking until the number of requests in flight is below the current limit or
+     * the provided timeout has passed.
+     *
+     * @param timeout the longest time to wait for a slot.
+     * @return true if a slot was reserved, false if none became free in time.
+     * @throws InterruptedException if the thread is interrupted while waiting for a slot.
+     */
+    public synchronized boolean tryAcquire(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight >= (int) limit) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases the slot of a finished request, adjusting the limit according to how the request went.
+     *
+     * @param throttled whether the request was rejected for being over the remote service's rate limit.
+     */
+    public synchronized void release(boolean throttled) {
+        inFlight--;
+        if (throttled) {
+            limit = Math.max(minLimit, limit * DECREASE_RATIO);
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Releases the slot of a request which was never sent, leaving the limit unchanged.
+     */
+    public synchronized void abandon() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * @return the number of concurrent requests currently allowed.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
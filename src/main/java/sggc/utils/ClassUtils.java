@@ -0,0 +1,25 @@
+package sggc.utils;
+
+/**
+ * Represents a collection of helper methods for working with classes which may not be bundled.
+ */
+public final class ClassUtils {
+
+    private ClassUtils() {
+    }
+
+    /**
+     * Determines whether a class can be loaded, without initialising it, such as one from an optional dependency.
+     *
+     * @param className the fully qualified name of the class.
+     * @return true if the class is on the classpath.
+     */
+    public static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, ClassUtils.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
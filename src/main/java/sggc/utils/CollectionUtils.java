@@ -0,0 +1,41 @@
+package sggc.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Represents a collection of helper methods for working with collections.
+ */
+public final class CollectionUtils {
+
+    private CollectionUtils() {
+    }
+
+    /**
+     * Splits a collection into consecutive lists of the specified size, the last of which may be smaller.
+     *
+     * @param items the items to split.
+     * @param size  the number of items in each list.
+     * @param <T>   the type of the items.
+     * @return the lists of items, in the iteration order of the collection.
+     */
+    public static <T> List<List<T>> partition(Collection<T> items, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Partition size must be at least 1.");
+        }
+        List<List<T>> partitions = new ArrayList<>((items.size() + size - 1) / size);
+        List<T> partition = new ArrayList<>(Math.min(size, items.size()));
+        for (T item : items) {
+            partition.add(item);
+            if (partition.size() == size) {
+                partitions.add(partition);
+                partition = new ArrayList<>(size);
+            }
+        }
+        if (!partition.isEmpty()) {
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+}
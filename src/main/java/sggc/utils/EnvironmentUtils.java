@@ -0,0 +1,70 @@
+package sggc.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+
+/**
+ * Represents a collection of helper methods for reading optional configuration from environment variables.
+ */
+@Slf4j
+public final class EnvironmentUtils {
+
+    private EnvironmentUtils() {
+    }
+
+    /**
+     * Reads an integer from the specified environment variable.
+     *
+     * @param name         the name of the environment variable.
+     * @param defaultValue the value to return if the environment variable is absent or not a valid integer.
+     * @return the integer value of the environment variable, or the default value.
+     */
+    public static int getIntOrDefault(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Environment variable [{}] is not a valid integer, defaulting to [{}].", name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Reads a boolean from the specified environment variable.
+     *
+     * @param name         the name of the environment variable.
+     * @param defaultValue the value to return if the environment variable is absent.
+     * @return true if the environment variable is set to "true" (ignoring case), false if it is set to anything else,
+     * or the default value if it is absent.
+     */
+    public static boolean getBooleanOrDefault(String name, boolean defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Reads a URI from the specified environment variable.
+     *
+     * @param name the name of the environment variable.
+     * @return the URI held by the environment variable, or null if it is absent or not a valid URI.
+     */
+    public static URI getUriOrNull(String name) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return URI.create(value.trim());
+        } catch (IllegalArgumentException e) {
+            log.warn("Environment variable [{}] is not a valid URI, ignoring it.", name);
+            return null;
+        }
+    }
+}
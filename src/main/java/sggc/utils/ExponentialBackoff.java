@@ -0,0 +1,30 @@
+package sggc.utils;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents an exponential backoff policy with full jitter, so that concurrent callers being throttled do not retry
+ * in lockstep.
+ */
+@RequiredArgsConstructor
+public class ExponentialBackoff {
+
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+
+    /**
+     * Calculates how long to wait before the next attempt.
+     *
+     * @param attempt the number of attempts made so far, starting at 1.
+     * @return a random number of milliseconds between 0 and the base delay doubled for every attempt after the first,
+     * capped at the maximum delay.
+     */
+    public long delayMillis(int attempt) {
+        long exponentialDelay = baseDelay.toMillis() << Math.min(Math.max(attempt - 1, 0), 30);
+        long cappedDelay = Math.min(maxDelay.toMillis(), exponentialDelay);
+        return ThreadLocalRandom.current().nextLong(cappedDelay + 1);
+    }
+}
@@ -0,0 +1,181 @@
+package sggc.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents an in-memory registry of the metrics recorded while the lambda runs. Counters sum the amounts added to
+ * them, whereas distributions keep every value recorded so that percentiles can be taken of them. Metrics may be
+ * recorded concurrently from any thread.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Distribution> distributions = new ConcurrentHashMap<>();
+
+    /**
+     * Adds one to a counter, creating it if it has not been counted before.
+     *
+     * @param name the name of the counter.
+     */
+    public void increment(String name) {
+        count(name, 1, Unit.COUNT);
+    }
+
+    /**
+     * Adds an amount to a counter, creating it if it has not been counted before.
+     *
+     * @param name   the name of the counter.
+     * @param amount the amount to add.
+     * @param unit   the unit of the counter, ignored if the counter already exists.
+     */
+    public void count(String name, long amount, Unit unit) {
+        counters.computeIfAbsent(name, key -> new Counter(unit)).total.add(amount);
+    }
+
+    /**
+     * Records a value in a distribution, creating it if no value has been recorded in it before.
+     *
+     * @param name  the name of the distribution.
+     * @param value the value to record.
+     * @param unit  the unit of the distribution, ignored if the distribution already exists.
+     */
+    public void record(String name, double value, Unit unit) {
+        distributions.computeIfAbsent(name, key -> new Distribution(unit)).add(value);
+    }
+
+    /**
+     * Records a duration in milliseconds in a distribution, creating it if no value has been recorded in it before.
+     *
+     * @param name     the name of the distribution.
+     * @param duration the duration to record.
+     */
+    public void recordDuration(String name, Duration duration) {
+        // Rounded to the microsecond, which is plenty and keeps the published log lines short.
+        record(name, TimeUnit.NANOSECONDS.toMicros(duration.toNanos()) / 1000d, Unit.MILLISECONDS);
+    }
+
+    /**
+     * @param name the name of the counter.
+     * @return the total of the counter, or 0 if nothing has been counted under that name.
+     */
+    public long getCount(String name) {
+        Counter counter = counters.get(name);
+        return counter == null ? 0 : counter.total.sum();
+    }
+
+    /**
+     * @param name the name of the distribution.
+     * @return a copy of the values recorded in the distribution in the order they were recorded, or an empty list if
+     * nothing has been recorded under that name.
+     */
+    public List<Double> getValues(String name) {
+        Distribution distribution = distributions.get(name);
+        return distribution == null ? List.of() : distribution.copyValues();
+    }
+
+    /**
+     * Takes a percentile of a distribution using the nearest-rank method, so the result is always a recorded value.
+     *
+     * @param name       the name of the distribution.
+     * @param percentile the percentile to take, between 0 and 100.
+     * @return the smallest recorded value which is at least as large as the given percentage of recorded values, or 0
+     * if nothing has been recorded under that name.
+     */
+    public double getPercentile(String name, double percentile) {
+        List<Double> values = getValues(name);
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<Double> sortedValues = new ArrayList<>(values);
+        Collections.sort(sortedValues);
+        int rank = (int) Math.ceil(percentile / 100 * sortedValues.size());
+        return sortedValues.get(Math.min(Math.max(rank, 1), sortedValues.size()) - 1);
+    }
+
+    /**
+     * @param name the name of the counter or distribution.
+     * @return the unit of the counter or distribution, or null if nothing has been recorded under that name.
+     */
+    public Unit getUnit(String name) {
+        Counter counter = counters.get(name);
+        if (counter != null) {
+            return counter.unit;
+        }
+        Distribution distribution = distributions.get(name);
+        return distribution == null ? null : distribution.unit;
+    }
+
+    /**
+     * @return the names of every counter, in alphabetical order.
+     */
+    public SortedSet<String> getCounterNames() {
+        return new TreeSet<>(counters.keySet());
+    }
+
+    /**
+     * @return the names of every distribution, in alphabetical order.
+     */
+    public SortedSet<String> getDistributionNames() {
+        return new TreeSet<>(distributions.keySet());
+    }
+
+    /**
+     * Removes every counter and distribution, so the registry can be reused for the next invocation.
+     */
+    public void reset() {
+        counters.clear();
+        distributions.clear();
+    }
+
+    /**
+     * Represents the unit of a metric, named as CloudWatch expects.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Unit {
+        COUNT("Count"),
+        BYTES("Bytes"),
+        MILLISECONDS("Milliseconds"),
+        COUNT_PER_SECOND("Count/Second");
+
+        private final String cloudWatchName;
+    }
+
+    /**
+     * Represents a running total.
+     */
+    @RequiredArgsConstructor
+    private static final class Counter {
+        private final Unit unit;
+        private final LongAdder total = new LongAdder();
+    }
+
+    /**
+     * Represents every value recorded for a metric.
+     */
+    @RequiredArgsConstructor
+    private static final class Distribution {
+        private final Unit unit;
+        private final List<Double> values = new ArrayList<>();
+
+        private synchronized void add(double value) {
+            values.add(value);
+        }
+
+        private synchronized List<Double> copyValues() {
+            return new ArrayList<>(values);
+        }
+    }
+}
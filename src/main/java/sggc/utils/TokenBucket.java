@@ -0,0 +1,109 @@
+package sggc.utils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a token bucket rate limiter. Tokens are added to the bucket at a steady rate up to its capacity, and each
+ * request takes one, so requests may burst up to the capacity but are otherwise held to the refill rate.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    /**
+     * @param capacity        the maximum number of tokens the bucket holds, and so the largest burst allowed.
+     * @param tokensPerPeriod the number of tokens added to the bucket every period.
+     * @param period          the period over which {@code tokensPerPeriod} tokens are added.
+     */
+    public TokenBucket(int capacity, int tokensPerPeriod, Duration period) {
+        this.capacity = Math.max(capacity, 1);
+        this.tokensPerNano = (double) Math.max(tokensPerPeriod, 1) / period.toNanos();
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Takes a token from the bucket, blocking until one is available.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting for a token.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = take()) > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket, blocking until one is available or the provided timeout has passed. Gives up
+     * straight away if the bucket will not have a token before the timeout, such as while it is paused.
+     *
+     * @param timeout the longest time to wait for a token.
+     * @return true if a token was taken, false if none became available in time.
+     * @throws InterruptedException if the thread is interrupted while waiting for a token.
+     */
+    public synchronized boolean tryAcquire(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long waitNanos;
+        while ((waitNanos = take()) > 0) {
+            if (waitNanos > deadline - System.nanoTime()) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Takes a token from the bucket if one is available.
+     *
+     * @return 0 if a token was taken, otherwise how long in nanoseconds until the next token is due.
+     */
+    private long take() {
+        long now = System.nanoTime();
+        refill(now);
+        if (now - pausedUntilNanos < 0) {
+            return pausedUntilNanos - now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Empties the bucket and stops any tokens being taken until the provided duration has passed, used when the rate
+     * limited service asks for requests to stop for a while.
+     *
+     * @param duration how long to stop handing out tokens for.
+     */
+    public synchronized void pauseFor(Duration duration) {
+        long now = System.nanoTime();
+        long pausedUntil = now + duration.toNanos();
+        if (pausedUntil - pausedUntilNanos > 0) {
+            pausedUntilNanos = pausedUntil;
+        }
+        tokens = 0;
+        lastRefillNanos = pausedUntilNanos;
+    }
+
+    /**
+     * Adds the tokens accrued since the bucket was last refilled.
+     *
+     * @param now the current value of {@link System#nanoTime()}.
+     */
+    private void refill(long now) {
+        if (now - lastRefillNanos > 0) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
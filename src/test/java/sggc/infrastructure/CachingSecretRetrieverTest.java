@@ -0,0 +1,146 @@
+package sggc.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import sggc.exceptions.SecretRetrievalException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link CachingSecretRetriever}.
+ */
+class CachingSecretRetrieverTest {
+
+    private static final String SECRET_KEY = "steam-api-key";
+
+    @Test
+    void servesRepeatedRetrievalsFromTheCache() throws SecretRetrievalException {
+        CountingSecretRetriever delegate = new CountingSecretRetriever();
+        CachingSecretRetriever retriever = new CachingSecretRetriever(delegate);
+
+        assertEquals("value-1", retriever.getSecretValue(SECRET_KEY));
+        assertEquals("value-1", retriever.getSecretValue(SECRET_KEY));
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    void concurrentCallersShareASingleRetrieval() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingSecretRetriever delegate = new CountingSecretRetriever(release);
+        CachingSecretRetriever retriever = new CachingSecretRetriever(delegate);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> retriever.getSecretValue(SECRET_KEY)));
+            }
+            assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+            // Give the other callers time to join the retrieval already in progress.
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, delegate.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void refreshesInTheBackgroundWhileServingTheCachedValue() throws Exception {
+        CountingSecretRetriever delegate = new CountingSecretRetriever();
+        // Every retrieval falls within the refresh-ahead window, but nothing expires during the test.
+        CachingSecretRetriever retriever = new CachingSecretRetriever(delegate, Duration.ofHours(1),
+                Duration.ofHours(1));
+
+        assertEquals("value-1", retriever.getSecretValue(SECRET_KEY));
+        assertEquals("value-1", retriever.getSecretValue(SECRET_KEY));
+
+        // Each cached retrieval may start another refresh, so any later value shows a refresh replaced it.
+        String value = retriever.getSecretValue(SECRET_KEY);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ("value-1".equals(value) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            value = retriever.getSecretValue(SECRET_KEY);
+        }
+        assertNotEquals("value-1", value);
+        assertTrue(delegate.calls.get() >= 2);
+    }
+
+    @Test
+    void retriesAfterAFailedRetrieval() throws SecretRetrievalException {
+        CountingSecretRetriever delegate = new CountingSecretRetriever();
+        delegate.failuresRemaining.set(1);
+        CachingSecretRetriever retriever = new CachingSecretRetriever(delegate);
+
+        SecretRetrievalException exception = assertThrows(SecretRetrievalException.class,
+                () -> retriever.getSecretValue(SECRET_KEY));
+        assertSame(CountingSecretRetriever.FAILURE_CAUSE, exception.getCause());
+        assertEquals("value-2", retriever.getSecretValue(SECRET_KEY));
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void refetchesOnceTheCachedValueExpires() throws Exception {
+        CountingSecretRetriever delegate = new CountingSecretRetriever();
+        CachingSecretRetriever retriever = new CachingSecretRetriever(delegate, Duration.ofMillis(50),
+                Duration.ZERO);
+
+        assertEquals("value-1", retriever.getSecretValue(SECRET_KEY));
+        Thread.sleep(100);
+        assertEquals("value-2", retriever.getSecretValue(SECRET_KEY));
+    }
+
+    /**
+     * Represents a secret retriever which returns a new value on every call, optionally waiting on a latch first or
+     * failing a set number of times.
+     */
+    private static class CountingSecretRetriever implements SecretRetriever {
+
+        private static final RuntimeException FAILURE_CAUSE = new IllegalStateException("Secrets store unavailable.");
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failuresRemaining = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        CountingSecretRetriever() {
+            this(new CountDownLatch(0));
+        }
+
+        CountingSecretRetriever(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String getSecretValue(String secretKey) throws SecretRetrievalException {
+            int call = calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SecretRetrievalException(secretKey, e);
+            }
+            if (failuresRemaining.getAndDecrement() > 0) {
+                throw new SecretRetrievalException(secretKey, FAILURE_CAUSE);
+            }
+            return "value-" + call;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package sggc.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import sggc.models.AppIdSet;
+import sggc.models.PersistedAppIdIndex;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClientExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link DynamoDbAppIdIndexStore}.
+ */
+class DynamoDbAppIdIndexStoreTest {
+
+    @Test
+    void createsTheIndexWhenNoneHasBeenSaved() {
+        FakeIndexTable table = new FakeIndexTable();
+        DynamoDbAppIdIndexStore store = new DynamoDbAppIdIndexStore(table);
+
+        assertTrue(store.update(appIds -> appIds.add("440")));
+
+        PersistedAppIdIndex index = store.load();
+        assertEquals(DynamoDbAppIdIndexStore.INDEX_ID, index.getId());
+        assertEquals(1, index.getAppidCount());
+        assertEquals(1L, index.getVersion());
+        assertTrue(store.readAppIds(index).contains(440));
+    }
+
+    @Test
+    void reappliesChangesWhenAnotherWriterSavesFirst() {
+        FakeIndexTable table = new FakeIndexTable();
+        DynamoDbAppIdIndexStore store = new DynamoDbAppIdIndexStore(table);
+        store.update(appIds -> appIds.add("10"));
+        // Another writer saves its own appid between this writer's load and save.
+        table.beforeNextPut = () -> new DynamoDbAppIdIndexStore(new FakeIndexTable(table))
+                .update(appIds -> appIds.add("20"));
+
+        assertTrue(store.update(appIds -> appIds.add("30")));
+
+        assertEquals(3, table.puts);
+        AppIdSet saved = store.readAppIds(store.load());
+        assertEquals(3, saved.size());
+        assertTrue(saved.contains(10));
+        assertTrue(saved.contains(20));
+        assertTrue(saved.contains(30));
+    }
+
+    @Test
+    void givesUpAfterConflictingOnEveryAttempt() {
+        FakeIndexTable table = new FakeIndexTable();
+        table.alwaysConflict = true;
+        DynamoDbAppIdIndexStore store = new DynamoDbAppIdIndexStore(table);
+
+        assertFalse(store.update(appIds -> appIds.add("440")));
+
+        assertEquals(DynamoDbAppIdIndexStore.DEFAULT_MAX_ATTEMPTS, table.puts);
+        assertNull(store.load());
+    }
+
+    @Test
+    void ignoresAnIndexWhichCannotBeRead() {
+        DynamoDbAppIdIndexStore store = new DynamoDbAppIdIndexStore(new FakeIndexTable());
+        PersistedAppIdIndex index = new PersistedAppIdIndex();
+        index.setAppids(SdkBytes.fromByteArray(new byte[]{1, 2, 3, 4}));
+
+        assertNull(store.readAppIds(index));
+        assertNull(store.readAppIds(new PersistedAppIdIndex()));
+        assertNull(store.readAppIds(null));
+    }
+
+    /**
+     * Represents an in-memory table holding a single index, which checks the version on every save the way the
+     * versioned record extension does.
+     */
+    private static class FakeIndexTable implements DynamoDbTable<PersistedAppIdIndex> {
+
+        private final FakeIndexTable shared;
+        private PersistedAppIdIndex item;
+        private Runnable beforeNextPut;
+        private boolean alwaysConflict;
+        private int puts;
+
+        FakeIndexTable() {
+            this.shared = this;
+        }
+
+        /**
+         * @param other the table whose item this table should read and save, as another writer would.
+         */
+        FakeIndexTable(FakeIndexTable other) {
+            this.shared = other;
+        }
+
+        @Override
+        public PersistedAppIdIndex getItem(Key key) {
+            return copy(shared.item);
+        }
+
+        @Override
+        public void putItem(PersistedAppIdIndex index) {
+            puts++;
+            if (beforeNextPut != null) {
+                Runnable runnable = beforeNextPut;
+                beforeNextPut = null;
+                runnable.run();
+            }
+            Long savedVersion = shared.item == null ? null : shared.item.getVersion();
+            if (alwaysConflict || !Objects.equals(savedVersion, index.getVersion())) {
+                throw ConditionalCheckFailedException.builder().build();
+            }
+            PersistedAppIdIndex saved = copy(index);
+            saved.setVersion(savedVersion == null ? 1L : savedVersion + 1);
+            shared.item = saved;
+        }
+
+        @Override
+        public DynamoDbEnhancedClientExtension mapperExtension() {
+            return null;
+        }
+
+        @Override
+        public TableSchema<PersistedAppIdIndex> tableSchema() {
+            return PersistedAppIdIndex.TABLE_SCHEMA;
+        }
+
+        @Override
+        public String tableName() {
+            return "PersistedAppIdIndex";
+        }
+
+        @Override
+        public Key keyFrom(PersistedAppIdIndex index) {
+            return Key.builder().partitionValue(index.getId()).build();
+        }
+
+        @Override
+        public DynamoDbIndex<PersistedAppIdIndex> index(String indexName) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param index the index to copy, may be null.
+         * @return a copy of the index, so callers cannot change the saved item.
+         */
+        private static PersistedAppIdIndex copy(PersistedAppIdIndex index) {
+            if (index == null) {
+                return null;
+            }
+            PersistedAppIdIndex copy = new PersistedAppIdIndex();
+            copy.setId(index.getId());
+            copy.setAppids(index.getAppids());
+            copy.setAppidCount(index.getAppidCount());
+            copy.setVersion(index.getVersion());
+            copy.setUpdatedAt(index.getUpdatedAt());
+            return copy;
+        }
+    }
+}
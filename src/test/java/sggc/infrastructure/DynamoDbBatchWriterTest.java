@@ -0,0 +1,228 @@
+package sggc.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import sggc.models.Game;
+import sggc.models.dynamodb.BatchWriteSummary;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClientExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link DynamoDbBatchWriter}.
+ */
+class DynamoDbBatchWriterTest {
+
+    private static final String TABLE_NAME = "Game";
+    private static final Duration BASE_BACKOFF = Duration.ofMillis(1);
+    private static final Duration MAX_BACKOFF = Duration.ofMillis(5);
+
+    @Test
+    void retriesUnprocessedItemsUntilTheyAreWritten() {
+        // The first request leaves 5 items unprocessed, the retry writes them.
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> size == 25 ? 5 : 0);
+        DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, 1, 4, BASE_BACKOFF, MAX_BACKOFF);
+
+        BatchWriteSummary summary = writer.batchWrite(Game.class, games(25), new GameTable());
+
+        assertEquals(List.of(25, 5), client.requestSizes);
+        assertEquals(1, summary.getBatchCount());
+        assertEquals(25, summary.getItemCount());
+        assertEquals(1, summary.getRetryCount());
+        assertEquals(0, summary.getUnprocessedItemCount());
+    }
+
+    @Test
+    void retriesThrottledRequests() {
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> {
+            if (call == 1) {
+                throw ProvisionedThroughputExceededException.builder().build();
+            }
+            return 0;
+        });
+        DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, 1, 4, BASE_BACKOFF, MAX_BACKOFF);
+
+        BatchWriteSummary summary = writer.batchWrite(Game.class, games(10), new GameTable());
+
+        assertEquals(List.of(10, 10), client.requestSizes);
+        assertEquals(1, summary.getRetryCount());
+        assertEquals(0, summary.getUnprocessedItemCount());
+    }
+
+    @Test
+    void givesUpOnItemsStillUnprocessedAfterTheMaximumAttempts() {
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> size);
+        DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, 1, 3, BASE_BACKOFF, MAX_BACKOFF);
+
+        BatchWriteSummary summary = writer.batchWrite(Game.class, games(25), new GameTable());
+
+        assertEquals(List.of(25, 25, 25), client.requestSizes);
+        assertEquals(2, summary.getRetryCount());
+        assertEquals(25, summary.getUnprocessedItemCount());
+    }
+
+    @Test
+    void waitsNoLongerThanTheMaximumBackoffBetweenRetries() {
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> size);
+        // Uncapped, the last retry would wait up to 800ms.
+        DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, 1, 5, Duration.ofMillis(100),
+                Duration.ofMillis(150));
+
+        writer.batchWrite(Game.class, games(1), new GameTable());
+
+        assertEquals(5, client.requestTimes.size());
+        for (int i = 1; i < client.requestTimes.size(); i++) {
+            long gapMillis = Duration.ofNanos(client.requestTimes.get(i) - client.requestTimes.get(i - 1)).toMillis();
+            assertTrue(gapMillis < 150 + 100, "Waited " + gapMillis + "ms between retries.");
+        }
+    }
+
+    @Test
+    void recordsTheFailedBatchAndThoseNotYetWrittenAsUnprocessed() {
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> {
+            if (call == 2) {
+                throw new IllegalStateException("Batch write failed.");
+            }
+            return 0;
+        });
+        DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, 1, 4, BASE_BACKOFF, MAX_BACKOFF);
+
+        BatchWriteSummary summary = writer.batchWrite(Game.class, games(100), new GameTable());
+
+        assertEquals(2, client.requestSizes.size());
+        assertEquals(4, summary.getBatchCount());
+        assertEquals(100, summary.getItemCount());
+        assertEquals(75, summary.getUnprocessedItemCount());
+    }
+
+    @Test
+    void summarisesEveryBatchWhenABatchFailsWhileWritingConcurrently() {
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> {
+            throw new IllegalStateException("Batch write failed.");
+        });
+        DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, 4, 4, BASE_BACKOFF, MAX_BACKOFF);
+
+        BatchWriteSummary summary = writer.batchWrite(Game.class, games(250), new GameTable());
+
+        assertEquals(10, summary.getBatchCount());
+        assertEquals(250, summary.getItemCount());
+        assertEquals(250, summary.getUnprocessedItemCount());
+        // Only the batches already started when the first failed are submitted.
+        assertTrue(client.requestSizes.size() <= 4);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        FakeEnhancedClient client = new FakeEnhancedClient((call, size) -> 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new DynamoDbBatchWriter(client, 0, 4, BASE_BACKOFF, MAX_BACKOFF));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DynamoDbBatchWriter(client, 1, 0, BASE_BACKOFF, MAX_BACKOFF));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DynamoDbBatchWriter(client, 1, 4, Duration.ZERO, MAX_BACKOFF));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DynamoDbBatchWriter(client, 1, 4, BASE_BACKOFF, Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DynamoDbBatchWriter(client, 1, 4, MAX_BACKOFF, BASE_BACKOFF));
+    }
+
+    /**
+     * @param count the number of games to create.
+     * @return games with appids from 1 to the count.
+     */
+    private static List<Game> games(int count) {
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Game game = new Game();
+            game.setId(String.valueOf(i));
+            game.setAppid(String.valueOf(i));
+            games.add(game);
+        }
+        return games;
+    }
+
+    /**
+     * Represents an enhanced client whose batch writes leave as many of the last items of each request unprocessed as
+     * a function of the request's number and size decides, or fail with whatever it throws.
+     */
+    private static class FakeEnhancedClient implements DynamoDbEnhancedClient {
+
+        private final BiFunction<Integer, Integer, Integer> unprocessedCount;
+        private final List<Integer> requestSizes = new CopyOnWriteArrayList<>();
+        private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+
+        /**
+         * @param unprocessedCount the function deciding how many items of each request are left unprocessed, given
+         *                         the number of the request, starting at 1, and its size.
+         */
+        FakeEnhancedClient(BiFunction<Integer, Integer, Integer> unprocessedCount) {
+            this.unprocessedCount = unprocessedCount;
+        }
+
+        @Override
+        public BatchWriteResult batchWriteItem(BatchWriteItemEnhancedRequest request) {
+            List<WriteRequest> writeRequests = new ArrayList<>(request.writeBatches().iterator().next()
+                    .writeRequests());
+            int call;
+            synchronized (this) {
+                requestTimes.add(System.nanoTime());
+                requestSizes.add(writeRequests.size());
+                call = requestSizes.size();
+            }
+            int unprocessed = unprocessedCount.apply(call, writeRequests.size());
+            return BatchWriteResult.builder()
+                    .unprocessedRequests(Map.of(TABLE_NAME, writeRequests.subList(writeRequests.size() - unprocessed,
+                            writeRequests.size())))
+                    .build();
+        }
+
+        @Override
+        public <T> DynamoDbTable<T> table(String tableName, TableSchema<T> tableSchema) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Represents the Game table, of which only the name and schema are needed to build batch writes.
+     */
+    private static class GameTable implements MappedTableResource<Game> {
+
+        @Override
+        public DynamoDbEnhancedClientExtension mapperExtension() {
+            return null;
+        }
+
+        @Override
+        public TableSchema<Game> tableSchema() {
+            return Game.TABLE_SCHEMA;
+        }
+
+        @Override
+        public String tableName() {
+            return TABLE_NAME;
+        }
+
+        @Override
+        public Key keyFrom(Game game) {
+            return Key.builder().partitionValue(game.getId()).build();
+        }
+    }
+}
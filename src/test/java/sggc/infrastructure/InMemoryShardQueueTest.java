@@ -0,0 +1,46 @@
+package sggc.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import sggc.models.Game;
+import sggc.models.GameShard;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link InMemoryShardQueue}.
+ */
+class InMemoryShardQueueTest {
+
+    @Test
+    void returnsShardsInTheOrderTheyWereSent() {
+        InMemoryShardQueue queue = new InMemoryShardQueue();
+        GameShard first = shard("10");
+        GameShard second = shard("20");
+        GameShard third = shard("30");
+
+        queue.sendAll(List.of(first, second));
+        queue.sendAll(List.of(third));
+
+        assertEquals(3, queue.size());
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertSame(third, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * @param appId the appid of the shard's only game.
+     * @return a shard of a single game.
+     */
+    private static GameShard shard(String appId) {
+        Game game = new Game();
+        game.setId(appId);
+        game.setAppid(appId);
+        return GameShard.of(List.of(game));
+    }
+}
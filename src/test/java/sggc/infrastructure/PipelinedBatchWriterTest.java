@@ -0,0 +1,143 @@
+package sggc.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import sggc.models.dynamodb.BatchWriteSummary;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PipelinedBatchWriter}.
+ */
+class PipelinedBatchWriterTest {
+
+    @Test
+    void flushesEachBatchAsSoonAsItIsFull() throws InterruptedException {
+        FakeBatchWriter batchWriter = new FakeBatchWriter();
+        PipelinedBatchWriter<Integer> writer = new PipelinedBatchWriter<>(batchWriter, Integer.class, null, 100);
+
+        submit(writer, DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE);
+
+        assertTrue(batchWriter.firstBatch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE), batchWriter.batchSizes);
+        writer.close();
+        assertEquals(List.of(DynamoDbBatchWriter.DYNAMODB_MAX_BATCH_SIZE), batchWriter.batchSizes);
+    }
+
+    @Test
+    void flushesThePartialBatchOnClose() {
+        FakeBatchWriter batchWriter = new FakeBatchWriter();
+        PipelinedBatchWriter<Integer> writer = new PipelinedBatchWriter<>(batchWriter, Integer.class, null, 100);
+
+        submit(writer, 60);
+        writer.close();
+
+        assertEquals(List.of(25, 25, 10), batchWriter.batchSizes);
+        assertEquals(60, writer.getWrittenCount());
+        assertEquals(3, writer.getSummary().getBatchCount());
+        assertEquals(60, writer.getSummary().getItemCount());
+    }
+
+    @Test
+    void propagatesTheFailureOfABatch() {
+        FakeBatchWriter batchWriter = new FakeBatchWriter();
+        batchWriter.failure = new IllegalStateException("Batch write failed.");
+        PipelinedBatchWriter<Integer> writer = new PipelinedBatchWriter<>(batchWriter, Integer.class, null, 1);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+            submit(writer, 100);
+            writer.close();
+        });
+
+        assertSame(batchWriter.failure, thrown.getCause());
+        thrown = assertThrows(IllegalStateException.class, writer::close);
+        assertSame(batchWriter.failure, thrown.getCause());
+    }
+
+    @Test
+    void refusesItemsOnceClosed() {
+        PipelinedBatchWriter<Integer> writer = new PipelinedBatchWriter<>(new FakeBatchWriter(), Integer.class, null,
+                100);
+
+        writer.close();
+
+        assertThrows(IllegalStateException.class, () -> writer.submit(1));
+    }
+
+    @Test
+    void writesEveryItemAcceptedWhileClosing() throws InterruptedException {
+        FakeBatchWriter batchWriter = new FakeBatchWriter();
+        PipelinedBatchWriter<Integer> writer = new PipelinedBatchWriter<>(batchWriter, Integer.class, null, 10);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    while (true) {
+                        writer.submit(accepted.get());
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // Refused as the writer closed.
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        Thread.sleep(50);
+        writer.close();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(accepted.get(), batchWriter.batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(accepted.get(), writer.getWrittenCount());
+    }
+
+    /**
+     * Submits items to the writer.
+     *
+     * @param writer the writer to submit to.
+     * @param count  the number of items to submit.
+     */
+    private static void submit(PipelinedBatchWriter<Integer> writer, int count) {
+        for (int i = 0; i < count; i++) {
+            writer.submit(i);
+        }
+    }
+
+    /**
+     * Represents a batch writer which records the size of each batch instead of writing it, or fails every batch.
+     */
+    private static class FakeBatchWriter implements BatchWriter {
+
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstBatch = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        @Override
+        public <T> BatchWriteSummary batchWrite(Class<T> itemType, Collection<T> items,
+                                                MappedTableResource<T> table) {
+            if (failure != null) {
+                throw failure;
+            }
+            batchSizes.add(items.size());
+            firstBatch.countDown();
+            BatchWriteSummary summary = new BatchWriteSummary();
+            summary.recordBatch(items.size(), 0, 0, 0);
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package sggc.infrastructure;
+
+import org.junit.jupiter.api.Test;
+import sggc.exceptions.ApiException;
+import sggc.models.Game;
+import sggc.models.GameShard;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link SqsShardQueue}.
+ */
+class SqsShardQueueTest {
+
+    private static final String QUEUE_URL = "https://sqs.eu-west-2.amazonaws.com/123456789012/shards";
+
+    @Test
+    void sendsShardsInBatchesOfAtMostTen() throws ApiException {
+        FakeSqsClient client = new FakeSqsClient((request, entry) -> true);
+        SqsShardQueue queue = new SqsShardQueue(client, QUEUE_URL, 1, Duration.ofMillis(1), Duration.ofMillis(1));
+
+        queue.sendAll(shards(23));
+
+        assertEquals(List.of(10, 10, 3), client.batchSizes);
+        assertEquals(23, client.sent.size());
+    }
+
+    @Test
+    void resendsShardsSqsFailedToAccept() throws ApiException {
+        // The first request only accepts shards with even ids.
+        FakeSqsClient client = new FakeSqsClient((request, entry) -> request > 1
+                || Integer.parseInt(entry.id()) % 2 == 0);
+        SqsShardQueue queue = new SqsShardQueue(client, QUEUE_URL, 2, Duration.ofMillis(1), Duration.ofMillis(1));
+
+        queue.sendAll(shards(4));
+
+        assertEquals(List.of(4, 2), client.batchSizes);
+        assertEquals(4, client.sent.size());
+    }
+
+    @Test
+    void givesUpOnShardsNotAcceptedWithinTheMaximumAttempts() {
+        FakeSqsClient client = new FakeSqsClient((request, entry) -> false);
+        SqsShardQueue queue = new SqsShardQueue(client, QUEUE_URL, 3, Duration.ofMillis(1), Duration.ofMillis(1));
+
+        assertThrows(ApiException.class, () -> queue.sendAll(shards(2)));
+        assertEquals(List.of(2, 2, 2), client.batchSizes);
+    }
+
+    @Test
+    void doesNotResendShardsRejectedAsTheSendersFault() {
+        FakeSqsClient client = new FakeSqsClient((request, entry) -> false);
+        client.senderFault = true;
+        SqsShardQueue queue = new SqsShardQueue(client, QUEUE_URL, 3, Duration.ofMillis(1), Duration.ofMillis(1));
+
+        assertThrows(ApiException.class, () -> queue.sendAll(shards(2)));
+        assertEquals(List.of(2), client.batchSizes);
+    }
+
+    @Test
+    void readsTheShardsItSends() throws ApiException {
+        FakeSqsClient client = new FakeSqsClient((request, entry) -> true);
+        SqsShardQueue queue = new SqsShardQueue(client, QUEUE_URL, 1, Duration.ofMillis(1), Duration.ofMillis(1));
+        List<GameShard> shards = shards(3);
+
+        queue.sendAll(shards);
+
+        List<GameShard> received = new ArrayList<>();
+        for (String messageBody : client.sent) {
+            received.add(SqsShardQueue.readShard(messageBody));
+        }
+        assertEquals(shards, received);
+    }
+
+    @Test
+    void rejectsMessagesWhichDoNotHoldAShard() {
+        assertThrows(ApiException.class, () -> SqsShardQueue.readShard("{}"));
+        assertThrows(ApiException.class, () -> SqsShardQueue.readShard("not a shard"));
+    }
+
+    /**
+     * @param count the number of shards to create.
+     * @return shards of a single game each, with appids from 1 to the count.
+     */
+    private static List<GameShard> shards(int count) {
+        List<GameShard> shards = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Game game = new Game();
+            game.setId(String.valueOf(i));
+            game.setAppid(String.valueOf(i));
+            game.setName("Game " + i);
+            shards.add(GameShard.of(List.of(game)));
+        }
+        return shards;
+    }
+
+    /**
+     * Represents an SQS client which records the messages it accepts instead of sending them, accepting or failing
+     * each entry as a predicate of the request's number and the entry decides.
+     */
+    private static class FakeSqsClient implements SqsClient {
+
+        private final BiPredicate<Integer, SendMessageBatchRequestEntry> accepts;
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<String> sent = new ArrayList<>();
+        private boolean senderFault;
+
+        /**
+         * @param accepts the predicate deciding whether an entry is accepted, given the number of the request, starting
+         *                at 1, and the entry.
+         */
+        FakeSqsClient(BiPredicate<Integer, SendMessageBatchRequestEntry> accepts) {
+            this.accepts = accepts;
+        }
+
+        @Override
+        public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest request) {
+            batchSizes.add(request.entries().size());
+            int requestNumber = batchSizes.size();
+            List<SendMessageBatchRequestEntry> accepted = request.entries().stream()
+                    .filter(entry -> accepts.test(requestNumber, entry))
+                    .collect(Collectors.toList());
+            accepted.forEach(entry -> sent.add(entry.messageBody()));
+            return SendMessageBatchResponse.builder()
+                    .successful(accepted.stream()
+                            .map(entry -> SendMessageBatchResultEntry.builder().id(entry.id()).build())
+                            .collect(Collectors.toList()))
+                    .failed(request.entries().stream()
+                            .filter(entry -> !accepted.contains(entry))
+                            .map(entry -> BatchResultErrorEntry.builder()
+                                    .id(entry.id())
+                                    .senderFault(senderFault)
+                                    .code(senderFault ? "InvalidMessageContents" : "InternalError")
+                                    .message("Entry not accepted.")
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package sggc.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link AppIdSet}.
+ */
+class AppIdSetTest {
+
+    @Test
+    void addsEachAppIdOnce() {
+        AppIdSet appIds = new AppIdSet();
+
+        assertTrue(appIds.add("440"));
+        assertFalse(appIds.add("440"));
+        assertTrue(appIds.add("not-a-number"));
+        assertFalse(appIds.add("not-a-number"));
+        assertEquals(2, appIds.size());
+    }
+
+    @Test
+    void holdsAppIdsWhichAreNotSmallNumbersOutsideTheBitmap() {
+        AppIdSet appIds = new AppIdSet();
+        appIds.add("not-a-number");
+        appIds.add("0440");
+        appIds.add("999999999");
+        appIds.add("");
+
+        assertTrue(appIds.contains("not-a-number"));
+        assertTrue(appIds.contains("0440"));
+        assertFalse(appIds.contains("440"));
+        assertFalse(appIds.contains(440));
+        assertTrue(appIds.contains("999999999"));
+        assertTrue(appIds.contains(999999999));
+        assertTrue(appIds.contains(""));
+        assertEquals(4, appIds.size());
+        // None of the appids are in the bitmap.
+        assertEquals(0, appIds.getHighestAppId());
+    }
+
+    @Test
+    void looksUpNumericAppIdsByEitherForm() {
+        AppIdSet appIds = new AppIdSet();
+        appIds.add("0");
+        appIds.add("1245620");
+
+        assertTrue(appIds.contains(0));
+        assertTrue(appIds.contains("1245620"));
+        assertTrue(appIds.contains(1245620));
+        assertFalse(appIds.contains(1245621));
+        assertEquals(1245620, appIds.getHighestAppId());
+    }
+
+    @Test
+    void roundTripsThroughCompressedBytes() throws IOException {
+        AppIdSet appIds = new AppIdSet();
+        for (int appId = 10; appId < 200_000; appId += 10) {
+            appIds.add(String.valueOf(appId));
+        }
+        appIds.add("not-a-number");
+        appIds.add("0440");
+        appIds.add("999999999");
+
+        byte[] compressedBytes = appIds.toCompressedBytes();
+        AppIdSet read = AppIdSet.fromCompressedBytes(compressedBytes);
+
+        assertEquals(appIds.size(), read.size());
+        assertEquals(appIds.getHighestAppId(), read.getHighestAppId());
+        assertTrue(read.contains(10));
+        assertTrue(read.contains("199990"));
+        assertFalse(read.contains(15));
+        assertTrue(read.contains("not-a-number"));
+        assertTrue(read.contains("0440"));
+        assertTrue(read.contains(999999999));
+        // Dense appids compress to a small fraction of a byte each.
+        assertTrue(compressedBytes.length < appIds.size() / 4, compressedBytes.length + " bytes.");
+    }
+
+    @Test
+    void roundTripsAnEmptySet() throws IOException {
+        AppIdSet read = AppIdSet.fromCompressedBytes(new AppIdSet().toCompressedBytes());
+
+        assertEquals(0, read.size());
+        assertEquals(0, read.getHighestAppId());
+    }
+
+    @Test
+    void rejectsBytesWhichAreNotASerializedSet() {
+        assertThrows(IOException.class, () -> AppIdSet.fromCompressedBytes(new byte[]{1, 2, 3, 4}));
+    }
+
+    @Test
+    void addAllMergesBothKindsOfAppId() {
+        AppIdSet appIds = new AppIdSet();
+        appIds.add("10");
+        appIds.add("not-a-number");
+        AppIdSet other = new AppIdSet();
+        other.add("10");
+        other.add("20");
+        other.add("another");
+
+        appIds.addAll(other);
+
+        assertEquals(4, appIds.size());
+        assertTrue(appIds.contains(20));
+        assertTrue(appIds.contains("another"));
+    }
+}
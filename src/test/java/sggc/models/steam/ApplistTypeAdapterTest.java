@@ -0,0 +1,128 @@
+package sggc.models.steam;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+import sggc.models.AppIdSet;
+import sggc.models.Game;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link ApplistTypeAdapter}.
+ */
+class ApplistTypeAdapterTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    void readsTheAppidAndNameOfEachApp() {
+        Applist applist = gson.fromJson("{\"apps\":[{\"appid\":10,\"name\":\"Counter-Strike\"},"
+                + "{\"appid\":440,\"name\":\"Team Fortress 2\"}]}", Applist.class);
+
+        assertEquals(2, applist.size());
+        assertEquals(10, applist.getAppid(0));
+        assertEquals("Counter-Strike", applist.getName(0));
+        assertEquals(440, applist.getAppid(1));
+        assertEquals("Team Fortress 2", applist.getName(1));
+    }
+
+    @Test
+    void skipsUnknownFields() {
+        Applist applist = gson.fromJson("{\"have_more_results\":true,\"apps\":[{\"appid\":10,"
+                + "\"name\":\"Counter-Strike\",\"last_modified\":1602535893,\"tags\":{\"fps\":1}}],"
+                + "\"last_appid\":10}", Applist.class);
+
+        assertEquals(1, applist.size());
+        assertEquals(10, applist.getAppid(0));
+        assertEquals("Counter-Strike", applist.getName(0));
+    }
+
+    @Test
+    void keepsAppsWithNoName() {
+        Applist applist = gson.fromJson("{\"apps\":[{\"appid\":10,\"name\":null},{\"appid\":20},"
+                + "{\"appid\":30,\"name\":\"\"}]}", Applist.class);
+
+        assertEquals(3, applist.size());
+        assertNull(applist.getName(0));
+        assertNull(applist.getName(1));
+        assertEquals("", applist.getName(2));
+    }
+
+    @Test
+    void skipsAppsWithNoAppid() {
+        Applist applist = gson.fromJson("{\"apps\":[{\"name\":\"No appid\"},{\"appid\":null,\"name\":\"Null appid\"},"
+                + "{\"appid\":10,\"name\":\"Counter-Strike\"}]}", Applist.class);
+
+        assertEquals(1, applist.size());
+        assertEquals(10, applist.getAppid(0));
+    }
+
+    @Test
+    void readsAnAppIdGivenAsAString() {
+        Applist applist = gson.fromJson("{\"apps\":[{\"appid\":\"10\",\"name\":\"Counter-Strike\"}]}",
+                Applist.class);
+
+        assertEquals(10, applist.getAppid(0));
+    }
+
+    @Test
+    void rejectsAnAppidWhichIsNotAnInteger() {
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson(
+                "{\"apps\":[{\"appid\":\"abc\",\"name\":\"Not a number\"}]}", Applist.class));
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson(
+                "{\"apps\":[{\"appid\":1.5,\"name\":\"Not an integer\"}]}", Applist.class));
+    }
+
+    @Test
+    void readsNullAndAnEmptyList() {
+        assertNull(gson.fromJson("null", Applist.class));
+        assertEquals(0, gson.fromJson("{}", Applist.class).size());
+        assertEquals(0, gson.fromJson("{\"apps\":null}", Applist.class).size());
+        assertEquals(0, gson.fromJson("{\"apps\":[]}", Applist.class).size());
+    }
+
+    @Test
+    void roundTripsALargeListThroughWrite() {
+        StringBuilder json = new StringBuilder("{\"apps\":[");
+        for (int appid = 0; appid < 5000; appid++) {
+            if (appid > 0) {
+                json.append(',');
+            }
+            json.append("{\"appid\":").append(appid);
+            if (appid % 7 != 0) {
+                json.append(",\"name\":\"Game ").append(appid).append('"');
+            }
+            json.append('}');
+        }
+        json.append("]}");
+        Applist applist = gson.fromJson(json.toString(), Applist.class);
+
+        Applist read = gson.fromJson(gson.toJson(applist), Applist.class);
+
+        assertEquals(5000, read.size());
+        for (int i = 0; i < read.size(); i++) {
+            assertEquals(i, read.getAppid(i));
+            assertEquals(i % 7 == 0 ? null : "Game " + i, read.getName(i));
+        }
+    }
+
+    @Test
+    void createsGamesOnlyForAppsNotInTheSet() {
+        Applist applist = gson.fromJson("{\"apps\":[{\"appid\":10,\"name\":\"Counter-Strike\"},"
+                + "{\"appid\":440,\"name\":\"Team Fortress 2\"}]}", Applist.class);
+        AppIdSet persisted = new AppIdSet();
+        persisted.add("10");
+
+        Set<Game> games = applist.getGamesNotIn(persisted);
+
+        assertEquals(1, games.size());
+        Game game = games.iterator().next();
+        assertEquals("440", game.getAppid());
+        assertEquals("Team Fortress 2", game.getName());
+    }
+}
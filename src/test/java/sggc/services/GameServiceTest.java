@@ -0,0 +1,69 @@
+package sggc.services;
+
+import org.junit.jupiter.api.Test;
+import sggc.models.Game;
+import sggc.models.GameShard;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link GameService}.
+ */
+class GameServiceTest {
+
+    private final GameService gameService = new GameService(null);
+
+    @Test
+    void splitsGamesIntoShardsOfContiguousAppIds() {
+        List<GameShard> shards = gameService.shardByAppId(games("30", "5", "100", "20", "7"), 2);
+
+        assertEquals(3, shards.size());
+        assertEquals(List.of("5", "7"), appIds(shards.get(0)));
+        assertEquals(List.of("20", "30"), appIds(shards.get(1)));
+        assertEquals(List.of("100"), appIds(shards.get(2)));
+        assertEquals("5", shards.get(0).getFirstAppid());
+        assertEquals("7", shards.get(0).getLastAppid());
+        assertEquals("100", shards.get(2).getFirstAppid());
+        assertEquals("100", shards.get(2).getLastAppid());
+    }
+
+    @Test
+    void placesNonNumericAppIdsAfterAllOthers() {
+        List<GameShard> shards = gameService.shardByAppId(games("abc", "9", "10"), 10);
+
+        assertEquals(1, shards.size());
+        assertEquals(List.of("9", "10", "abc"), appIds(shards.get(0)));
+    }
+
+    @Test
+    void createsNoShardsForNoGames() {
+        assertTrue(gameService.shardByAppId(List.of(), 10).isEmpty());
+    }
+
+    /**
+     * @param appIds the appids of the games to create.
+     * @return a game for each appid, in the same order.
+     */
+    private static List<Game> games(String... appIds) {
+        return List.of(appIds).stream()
+                .map(appId -> {
+                    Game game = new Game();
+                    game.setId(appId);
+                    game.setAppid(appId);
+                    return game;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param shard the shard whose appids to list.
+     * @return the appids of the shard's games, in order.
+     */
+    private static List<String> appIds(GameShard shard) {
+        return shard.getGames().stream().map(Game::getAppid).collect(Collectors.toList());
+    }
+}
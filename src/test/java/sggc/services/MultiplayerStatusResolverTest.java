@@ -0,0 +1,195 @@
+package sggc.services;
+
+import org.junit.jupiter.api.Test;
+import sggc.models.Game;
+import sggc.models.service.Result;
+import sggc.models.service.SuccessResult;
+import sggc.models.service.error.ErrorType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MultiplayerStatusResolver}.
+ */
+class MultiplayerStatusResolverTest {
+
+    private static final Instant NO_DEADLINE = Instant.now().plus(Duration.ofHours(1));
+
+    @Test
+    void keepsNoMoreLookupsInFlightThanItsParallelism() {
+        FakeGameService gameService = new FakeGameService(game -> {
+            sleep(20);
+            return new SuccessResult<>(true);
+        });
+        MultiplayerStatusResolver resolver = new MultiplayerStatusResolver(gameService, 3, Duration.ofSeconds(10));
+
+        Map<Game, Result<Boolean>> results = resolver.resolve(games(20), NO_DEADLINE);
+
+        assertEquals(20, results.size());
+        assertTrue(results.values().stream().allMatch(Result::isSuccess));
+        assertTrue(gameService.maxInFlight.get() <= 3);
+    }
+
+    @Test
+    void interruptsLookupsThatTimeOut() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        FakeGameService gameService = new FakeGameService(game -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new SuccessResult<>(true);
+        });
+        MultiplayerStatusResolver resolver = new MultiplayerStatusResolver(gameService, 1, Duration.ofMillis(50));
+
+        Map<Game, Result<Boolean>> results = resolver.resolve(games(1), NO_DEADLINE);
+
+        assertEquals(ErrorType.TIMEOUT, errorType(results.values().iterator().next()));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void defersGamesNotLookedUpBeforeTheDeadline() {
+        FakeGameService gameService = new FakeGameService(game -> new SuccessResult<>(true));
+        MultiplayerStatusResolver resolver = new MultiplayerStatusResolver(gameService, 2, Duration.ofSeconds(10));
+
+        Map<Game, Result<Boolean>> results = resolver.resolve(games(5), Instant.now().minusSeconds(1));
+
+        assertEquals(5, results.size());
+        assertTrue(results.values().stream().allMatch(result -> errorType(result) == ErrorType.DEADLINE_EXCEEDED));
+        assertEquals(0, gameService.lookups.get());
+    }
+
+    @Test
+    void givesUpOnLookupsStillInFlightAtTheDeadline() {
+        FakeGameService gameService = new FakeGameService(game -> {
+            sleep(10_000);
+            return new SuccessResult<>(true);
+        });
+        MultiplayerStatusResolver resolver = new MultiplayerStatusResolver(gameService, 2, Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        Map<Game, Result<Boolean>> results = resolver.resolve(games(4), Instant.now().plusMillis(100));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(4, results.size());
+        assertTrue(results.values().stream().allMatch(result -> errorType(result) == ErrorType.DEADLINE_EXCEEDED));
+    }
+
+    @Test
+    void rethrowsTheConsumersFailureOnceLookupsInFlightHaveFinished() {
+        FakeGameService gameService = new FakeGameService(game -> {
+            sleep(20);
+            return new SuccessResult<>(true);
+        });
+        MultiplayerStatusResolver resolver = new MultiplayerStatusResolver(gameService, 4, Duration.ofSeconds(10));
+        RuntimeException failure = new IllegalStateException("Consumer failed.");
+        AtomicInteger consumerCalls = new AtomicInteger();
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> resolver.resolve(games(50),
+                NO_DEADLINE, (game, result) -> {
+                    consumerCalls.incrementAndGet();
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(0, gameService.inFlight.get());
+        int callsOnReturn = consumerCalls.get();
+        sleep(100);
+        assertEquals(callsOnReturn, consumerCalls.get());
+        assertTrue(gameService.lookups.get() < 50);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        FakeGameService gameService = new FakeGameService(game -> new SuccessResult<>(true));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new MultiplayerStatusResolver(gameService, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MultiplayerStatusResolver(gameService, 1, Duration.ZERO));
+    }
+
+    /**
+     * @param count the number of games to create.
+     * @return games with appids from 1 to the count.
+     */
+    private static List<Game> games(int count) {
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Game game = new Game();
+            game.setId(String.valueOf(i));
+            game.setAppid(String.valueOf(i));
+            games.add(game);
+        }
+        return games;
+    }
+
+    /**
+     * @param result the result of a failed lookup.
+     * @return the type of the lookup's error.
+     */
+    private static ErrorType errorType(Result<Boolean> result) {
+        assertFalse(result.isSuccess());
+        return result.getErrorList().get(0).getType();
+    }
+
+    /**
+     * Sleeps, ending the sleep early without failing if interrupted.
+     *
+     * @param millis the time to sleep for.
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Represents a game service with no cache whose lookups are answered by a function, counting how many are in
+     * flight.
+     */
+    private static class FakeGameService extends GameService {
+
+        private final Function<Game, Result<Boolean>> lookup;
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        /**
+         * @param lookup the function answering each lookup.
+         */
+        FakeGameService(Function<Game, Result<Boolean>> lookup) {
+            super(null);
+            this.lookup = lookup;
+        }
+
+        @Override
+        public Result<Boolean> requestMultiplayerStatus(Game game) {
+            lookups.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                return lookup.apply(game);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package sggc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link AdaptiveConcurrencyLimiter}.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void clampsTheInitialLimitToItsBounds() {
+        assertEquals(4, new AdaptiveConcurrencyLimiter(10, 1, 4).getLimit());
+        assertEquals(2, new AdaptiveConcurrencyLimiter(0, 2, 4).getLimit());
+    }
+
+    @Test
+    void halvesTheLimitWhenThrottledDownToTheMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 8);
+
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(4, limiter.getLimit());
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(2, limiter.getLimit());
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void raisesTheLimitByAboutOnePerLimitOfSuccessesUpToTheMaximum() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 3);
+
+        limiter.acquire();
+        limiter.release(false);
+        assertEquals(2, limiter.getLimit());
+        limiter.acquire();
+        limiter.release(false);
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.release(false);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void tryAcquireGivesUpWhenNoSlotFreesInTime() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+        assertFalse(limiter.tryAcquire(Duration.ofMillis(50)));
+    }
+
+    @Test
+    void tryAcquireTakesASlotReleasedWhileWaiting() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.acquire();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.release(false);
+        });
+        releaser.start();
+
+        assertTrue(limiter.tryAcquire(Duration.ofSeconds(5)));
+        releaser.join();
+    }
+
+    @Test
+    void abandonFreesTheSlotWithoutChangingTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+        limiter.acquire();
+        limiter.acquire();
+
+        limiter.abandon();
+
+        assertEquals(2, limiter.getLimit());
+        assertTrue(limiter.tryAcquire(Duration.ZERO));
+        assertFalse(limiter.tryAcquire(Duration.ZERO));
+    }
+}
@@ -0,0 +1,106 @@
+package sggc.utils;
+
+import org.junit.jupiter.api.Test;
+import sggc.utils.MetricsRegistry.Unit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MetricsRegistry}.
+ */
+class MetricsRegistryTest {
+
+    @Test
+    void sumsTheAmountsAddedToACounter() {
+        MetricsRegistry metrics = new MetricsRegistry();
+
+        metrics.increment("Requests");
+        metrics.increment("Requests");
+        metrics.count("Requests", 3, Unit.COUNT);
+
+        assertEquals(5, metrics.getCount("Requests"));
+        assertEquals(0, metrics.getCount("Missing"));
+    }
+
+    @Test
+    void keepsTheUnitAMetricWasCreatedWith() {
+        MetricsRegistry metrics = new MetricsRegistry();
+
+        metrics.count("ResponseBytes", 100, Unit.BYTES);
+        metrics.count("ResponseBytes", 100, Unit.COUNT);
+        metrics.recordDuration("Latency", Duration.ofMillis(5));
+
+        assertEquals(Unit.BYTES, metrics.getUnit("ResponseBytes"));
+        assertEquals(Unit.MILLISECONDS, metrics.getUnit("Latency"));
+        assertNull(metrics.getUnit("Missing"));
+        assertEquals("Count/Second", Unit.COUNT_PER_SECOND.getCloudWatchName());
+    }
+
+    @Test
+    void recordsDurationsInMillisecondsToTheMicrosecond() {
+        MetricsRegistry metrics = new MetricsRegistry();
+
+        metrics.recordDuration("Latency", Duration.ofNanos(1_234_567));
+
+        assertEquals(List.of(1.234), metrics.getValues("Latency"));
+    }
+
+    @Test
+    void takesPercentilesByNearestRank() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        for (int value = 100; value >= 1; value--) {
+            metrics.record("Latency", value, Unit.MILLISECONDS);
+        }
+
+        assertEquals(1, metrics.getPercentile("Latency", 0));
+        assertEquals(50, metrics.getPercentile("Latency", 50));
+        assertEquals(99, metrics.getPercentile("Latency", 99));
+        assertEquals(100, metrics.getPercentile("Latency", 99.5));
+        assertEquals(100, metrics.getPercentile("Latency", 100));
+        assertEquals(0, metrics.getPercentile("Missing", 50));
+        // Values are kept in the order they were recorded.
+        assertEquals(100, metrics.getValues("Latency").get(0));
+    }
+
+    @Test
+    void listsNamesAlphabeticallyAndForgetsThemOnReset() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.increment("Written");
+        metrics.increment("Failed");
+        metrics.record("Latency", 1, Unit.MILLISECONDS);
+
+        assertEquals(List.of("Failed", "Written"), List.copyOf(metrics.getCounterNames()));
+        assertEquals(List.of("Latency"), List.copyOf(metrics.getDistributionNames()));
+
+        metrics.reset();
+
+        assertTrue(metrics.getCounterNames().isEmpty());
+        assertTrue(metrics.getDistributionNames().isEmpty());
+        assertEquals(0, metrics.getCount("Written"));
+    }
+
+    @Test
+    void recordsConcurrentlyWithoutLosingUpdates() throws InterruptedException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            executor.execute(() -> {
+                metrics.increment("Requests");
+                metrics.record("Latency", 1, Unit.MILLISECONDS);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8_000, metrics.getCount("Requests"));
+        assertEquals(8_000, metrics.getValues("Latency").size());
+    }
+}
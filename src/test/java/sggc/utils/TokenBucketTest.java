@@ -0,0 +1,83 @@
+package sggc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link TokenBucket}.
+ */
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstUpToCapacity() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(3, 1, Duration.ofHours(1));
+
+        assertTrue(tokenBucket.tryAcquire(Duration.ZERO));
+        assertTrue(tokenBucket.tryAcquire(Duration.ZERO));
+        assertTrue(tokenBucket.tryAcquire(Duration.ZERO));
+        assertFalse(tokenBucket.tryAcquire(Duration.ZERO));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(1, 20, Duration.ofSeconds(1));
+        tokenBucket.acquire();
+
+        long start = System.nanoTime();
+        assertTrue(tokenBucket.tryAcquire(Duration.ofSeconds(5)));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // A token is added every 50ms.
+        assertTrue(elapsedMillis >= 40, "Token taken after " + elapsedMillis + "ms.");
+    }
+
+    @Test
+    void tryAcquireGivesUpStraightAwayWhenNoTokenIsDueBeforeTheTimeout() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(1, 1, Duration.ofHours(1));
+        tokenBucket.acquire();
+
+        long start = System.nanoTime();
+        assertFalse(tokenBucket.tryAcquire(Duration.ofSeconds(5)));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 1000, "Gave up after " + elapsedMillis + "ms.");
+    }
+
+    @Test
+    void pauseForEmptiesTheBucketUntilThePauseEnds() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(5, 1000, Duration.ofSeconds(1));
+
+        long start = System.nanoTime();
+        tokenBucket.pauseFor(Duration.ofMillis(200));
+
+        assertFalse(tokenBucket.tryAcquire(Duration.ofMillis(50)));
+        assertTrue(tokenBucket.tryAcquire(Duration.ofSeconds(5)));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        assertTrue(elapsedMillis >= 190, "Token taken after " + elapsedMillis + "ms.");
+    }
+
+    @Test
+    void pauseForDoesNotShortenALongerPause() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(5, 1000, Duration.ofSeconds(1));
+
+        tokenBucket.pauseFor(Duration.ofHours(1));
+        tokenBucket.pauseFor(Duration.ofMillis(1));
+
+        assertFalse(tokenBucket.tryAcquire(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void doesNotRefillBeyondCapacity() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(2, 10, Duration.ofSeconds(1));
+        // Long enough to accrue three tokens were the bucket not capped.
+        Thread.sleep(300);
+
+        assertTrue(tokenBucket.tryAcquire(Duration.ZERO));
+        assertTrue(tokenBucket.tryAcquire(Duration.ZERO));
+        assertFalse(tokenBucket.tryAcquire(Duration.ZERO));
+    }
+}